@@ -1,19 +0,0 @@
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
-
-public class DBUtil {
-    public static Connection getConnection() throws SQLException {
-        String url = "jdbc:mysql://localhost:3306/mydatabase";
-
-        String user = "root";           // <-- your MySQL username
-        String password = "pranav2006"; // <-- your MySQL password
-
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found.", e);
-        }
-        return DriverManager.getConnection(url, user, password);
-    }
-}
@@ -1,60 +0,0 @@
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-
-public class UserDAO {
-
-    // Create table if it doesn't exist
-    public void initializeDatabase() {
-        String sql = "CREATE TABLE IF NOT EXISTS users (" +
-                     "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                     "username VARCHAR(50) NOT NULL UNIQUE, " +
-                     "password VARCHAR(100) NOT NULL" +
-                     ")";
-        try (Connection conn = DBUtil.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-            System.out.println("✅ Users table ready.");
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-    }
-
-    // Register new user
-    public boolean registerUser(String username, String password) {
-        String sql = "INSERT INTO users (username, password) VALUES (?, ?)";
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, username);
-            stmt.setString(2, password);
-
-            int rows = stmt.executeUpdate();
-            return rows > 0;
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
-        }
-    }
-
-    // Login user
-    public boolean loginUser(String username, String password) {
-        String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, username);
-            stmt.setString(2, password);
-
-            ResultSet rs = stmt.executeQuery();
-            return rs.next(); // true if found
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
-        }
-    }
-}
@@ -0,0 +1,643 @@
+// AdminFrame.java
+package carrental;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class AdminFrame extends JFrame {
+
+    private final CarRentalUI parentUI; 
+    private JTable carTable;
+    private DefaultTableModel carTableModel;
+    private JTable bookingTable;
+    private BookingTableModel bookingTableModel;
+
+    // Booking search bar
+    private JTextField customerFilter;
+    private JComboBox<String> carFilter;
+    private JTextField locationFilter;
+    private JTextField pickupFromFilter;
+    private JTextField pickupToFilter;
+    private static final String ANY_CAR = "All cars";
+    
+    // DAOs (Assuming CarDAO and BookingDAO are in the project)
+    // All calls go through AsyncDAO so the window never blocks on the database
+    private final AsyncDAO asyncDAO = AsyncDAO.getInstance();
+    private final BookingRepository bookingRepository = Repositories.bookings();
+
+    private static final Font TITLE_FONT = new Font("SansSerif", Font.BOLD, 36);
+    private static final Font HEADER_FONT = new Font("SansSerif", Font.BOLD, 16);
+    private static final Font BUTTON_FONT = new Font("SansSerif", Font.BOLD, 15);
+    private static final Color BG_COLOR = new Color(30, 30, 30);
+    private static final Color TEXT_COLOR = Color.WHITE;
+
+    // Auto-refresh: how often the tables ask for changes, and whether that starts on
+    private static final int POLL_SECONDS = Integer.getInteger("carrental.admin.pollSeconds", 10);
+    private static final boolean AUTO_REFRESH = Boolean.getBoolean("carrental.admin.autoRefresh");
+    private final Timer pollTimer = new Timer(POLL_SECONDS * 1000, e -> refreshChanges());
+
+    // Change token for the car table, -1 until the first full load
+    private long carChangeToken = -1;
+    private boolean carRefreshInFlight = false;
+    private boolean carRefreshAgain = false;
+
+    // Car and booking events from this process (admin edits, bookings, CSV imports)
+    // trigger a refresh; a burst of them is coalesced into one
+    private static final int EVENT_REFRESH_DELAY_MS = 200;
+    private final Timer eventRefreshTimer = new Timer(EVENT_REFRESH_DELAY_MS, e -> refreshChanges());
+    private final EventBus.Subscription carEvents =
+            EventBus.getInstance().subscribeOnEdt(CarEvent.class, e -> scheduleEventRefresh());
+    private final EventBus.Subscription bookingEvents =
+            EventBus.getInstance().subscribeOnEdt(BookingEvent.class, e -> scheduleEventRefresh());
+
+    public AdminFrame(CarRentalUI parentUI) {
+        this.parentUI = parentUI;
+        setTitle("Admin Car Management & Bookings");
+        setSize(1200, 700); 
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); 
+        setLocationRelativeTo(null);
+        
+        setupUI();
+        
+        loadCarData(); 
+        loadBookingData();
+        
+        setVisible(true);
+    }
+
+    private void setupUI() {
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBackground(BG_COLOR);
+        
+        JLabel title = new JLabel("Admin Dashboard 🛠️", SwingConstants.CENTER);
+        title.setFont(TITLE_FONT);
+        title.setForeground(TEXT_COLOR);
+        title.setBorder(BorderFactory.createEmptyBorder(20, 0, 10, 0));
+        mainPanel.add(title, BorderLayout.NORTH);
+
+        JTabbedPane tabbedPane = new JTabbedPane();
+        tabbedPane.setFont(HEADER_FONT);
+        
+        tabbedPane.addTab("Car Inventory", createCarManagementPanel());
+        tabbedPane.addTab("View Bookings", createBookingPanel()); 
+        
+        mainPanel.add(tabbedPane, BorderLayout.CENTER);
+        
+        JPanel footerPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 20, 10));
+        footerPanel.setBackground(new Color(20, 20, 20));
+        JButton logoutBtn = createStyledButton("Admin Log Out");
+        logoutBtn.addActionListener(e -> {
+            // Placeholder for admin logout logic
+            // parentUI.logoutAdmin(); 
+            dispose(); 
+        });
+        JCheckBox autoRefresh = new JCheckBox("Auto-refresh");
+        autoRefresh.setOpaque(false);
+        autoRefresh.setForeground(TEXT_COLOR);
+        autoRefresh.setToolTipText("Fetch changes every " + POLL_SECONDS + " s");
+        autoRefresh.addActionListener(e -> {
+            if (autoRefresh.isSelected()) {
+                pollTimer.start();
+            } else {
+                pollTimer.stop();
+            }
+        });
+        autoRefresh.setSelected(AUTO_REFRESH);
+        if (AUTO_REFRESH) {
+            pollTimer.start();
+        }
+        eventRefreshTimer.setRepeats(false);
+        footerPanel.add(autoRefresh);
+        footerPanel.add(logoutBtn);
+        mainPanel.add(footerPanel, BorderLayout.SOUTH);
+        
+        setContentPane(mainPanel);
+    }
+    
+    // --- Car Management Panel ---
+    private JPanel createCarManagementPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBackground(new Color(40, 40, 40)); 
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+
+        String[] columnNames = {"Car Model", "Daily Rent ($)"};
+        carTableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return column == 1; // Only price is editable
+            }
+        };
+        carTable = new JTable(carTableModel);
+        carTable.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        carTable.getTableHeader().setFont(HEADER_FONT);
+        carTable.setRowHeight(25);
+        
+        JScrollPane scrollPane = new JScrollPane(carTable);
+        panel.add(scrollPane, BorderLayout.CENTER);
+
+        JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
+        actionPanel.setOpaque(false);
+
+        JButton addBtn = createStyledButton("Add New Car");
+        addBtn.addActionListener(e -> addNewCar());
+        
+        JButton updateBtn = createStyledButton("Save Price Change (in table)");
+        updateBtn.addActionListener(e -> updateCarPrice());
+
+        JButton deleteCarBtn = createStyledButton("Delete Car");
+        deleteCarBtn.addActionListener(e -> deleteCar());
+        
+        JButton importCarsBtn = createStyledButton("Import CSV...");
+        importCarsBtn.addActionListener(e -> importCsv(false));
+
+        JButton exportCarsBtn = createStyledButton("Export CSV...");
+        exportCarsBtn.addActionListener(e -> exportCsv(false));
+
+        actionPanel.add(addBtn);
+        actionPanel.add(updateBtn);
+        actionPanel.add(deleteCarBtn);
+        actionPanel.add(importCarsBtn);
+        actionPanel.add(exportCarsBtn);
+        
+        panel.add(actionPanel, BorderLayout.SOUTH);
+        return panel;
+    }
+    
+    /**
+     * Reloads the whole car table (also discarding unsaved price edits).
+     */
+    private void loadCarData() {
+        CompletableFuture<Map.Entry<Long, Map<String, Integer>>> load = AsyncDAO.supply(() -> {
+            // Token first, then a fresh read, so later changes are all picked up by refreshCarChanges
+            long token = Repositories.cars().changeToken();
+            CarCatalog.getInstance().invalidate();
+            return Map.entry(token, Repositories.cars().loadAllCars());
+        });
+        UiTask.run(this, "Loading cars...", load, true, loaded -> {
+            carChangeToken = loaded.getKey();
+            carTableModel.setRowCount(0); 
+            List<Map.Entry<String, Integer>> list = new ArrayList<>(loaded.getValue().entrySet());
+            list.sort(Comparator.comparing(Map.Entry::getKey)); 
+
+            for (Map.Entry<String, Integer> entry : list) {
+                carTableModel.addRow(new Object[]{entry.getKey(), entry.getValue()});
+            }
+            syncCarFilter();
+        });
+    }
+
+    /**
+     * Applies only the cars added, re-priced or deleted since the last load,
+     * as row events on the car table. Runs quietly in the background.
+     */
+    private void refreshCarChanges() {
+        if (carChangeToken < 0) {
+            return; // the first load is still running
+        }
+        if (carRefreshInFlight) {
+            carRefreshAgain = true; // run once more when this one lands
+            return;
+        }
+        carRefreshInFlight = true;
+        long token = carChangeToken;
+        AsyncDAO.supply(() -> Repositories.cars().changesSince(token))
+                .whenComplete((changes, error) -> SwingUtilities.invokeLater(() -> {
+                    carRefreshInFlight = false;
+                    if (error != null) {
+                        error.printStackTrace();
+                    } else if (changes.isReset()) {
+                        loadCarData();
+                    } else {
+                        applyCarChanges(changes);
+                    }
+                    if (carRefreshAgain) {
+                        carRefreshAgain = false;
+                        refreshCarChanges();
+                    }
+                }));
+    }
+
+    private void applyCarChanges(ChangeSet<Map.Entry<String, Integer>> changes) {
+        carChangeToken = changes.getToken();
+        boolean fleetChanged = false;
+        for (String model : changes.getDeleted()) {
+            int row = findCarRow(model);
+            if (row >= 0) {
+                carTableModel.removeRow(row);
+                fleetChanged = true;
+            }
+        }
+        for (Map.Entry<String, Integer> car : changes.getChanged()) {
+            int row = findCarRow(car.getKey());
+            if (row >= 0) {
+                if (!car.getValue().equals(carTableModel.getValueAt(row, 1))) {
+                    carTableModel.setValueAt(car.getValue(), row, 1);
+                }
+            } else {
+                // Keep the table in model order
+                int at = 0;
+                while (at < carTableModel.getRowCount()
+                        && ((String) carTableModel.getValueAt(at, 0)).compareTo(car.getKey()) < 0) {
+                    at++;
+                }
+                carTableModel.insertRow(at, new Object[]{car.getKey(), car.getValue()});
+                fleetChanged = true;
+            }
+        }
+        if (fleetChanged) {
+            syncCarFilter();
+        }
+    }
+
+    private int findCarRow(String model) {
+        for (int row = 0; row < carTableModel.getRowCount(); row++) {
+            if (model.equalsIgnoreCase((String) carTableModel.getValueAt(row, 0))) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    // Keeps the booking search's car list in step with the car table, preserving the selection
+    private void syncCarFilter() {
+        Object selected = carFilter.getSelectedItem();
+        carFilter.removeAllItems();
+        carFilter.addItem(ANY_CAR);
+        for (int row = 0; row < carTableModel.getRowCount(); row++) {
+            carFilter.addItem((String) carTableModel.getValueAt(row, 0));
+        }
+        carFilter.setSelectedItem(selected != null ? selected : ANY_CAR);
+    }
+
+    // Timer tick and Refresh: fetch what changed in both tables
+    private void refreshChanges() {
+        refreshCarChanges();
+        bookingTableModel.refreshChanges();
+    }
+
+    private void scheduleEventRefresh() {
+        if (!eventRefreshTimer.isRunning()) {
+            eventRefreshTimer.start();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        pollTimer.stop();
+        eventRefreshTimer.stop();
+        carEvents.close();
+        bookingEvents.close();
+        if (bookingTableModel != null) {
+            bookingTableModel.close();
+        }
+        super.dispose();
+    }
+    
+    private void addNewCar() {
+        String name = JOptionPane.showInputDialog(this, "Enter New Car Model Name:");
+        if (name == null || name.trim().isEmpty()) return;
+        
+        String priceStr = JOptionPane.showInputDialog(this, "Enter Daily Rent for " + name + ":");
+        if (priceStr == null || priceStr.trim().isEmpty()) return;
+
+        try {
+            int price = Integer.parseInt(priceStr.trim());
+            UiTask.run(this, "Adding car...", asyncDAO.addCar(name, price), added -> {
+                if (added) {
+                    // The car table and open booking forms update from the CarEvent
+                    JOptionPane.showMessageDialog(this, "Car added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                     JOptionPane.showMessageDialog(this, "Failed to add car. It may already exist.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Invalid price entered. Price must be a number.", "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void updateCarPrice() {
+        int selectedRow = carTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "Please select the car row you edited, then click this button.", "Selection Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        String carName = (String) carTableModel.getValueAt(selectedRow, 0);
+        Object priceObj = carTableModel.getValueAt(selectedRow, 1);
+        
+        try {
+            int newPrice = Integer.parseInt(priceObj.toString().trim());
+            
+            UiTask.run(this, "Saving price...", asyncDAO.updateCarPrice(carName, newPrice), updated -> {
+                if (updated) {
+                    JOptionPane.showMessageDialog(this, "Price for " + carName + " updated to $" + newPrice + ".", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to update price in DB.", "Error", JOptionPane.ERROR_MESSAGE);
+                    loadCarData(); 
+                }
+            });
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Invalid price in the selected row's price column. Please ensure it is a number.", "Error", JOptionPane.ERROR_MESSAGE);
+            loadCarData(); 
+        }
+    }
+
+    private void deleteCar() {
+        int selectedRow = carTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "Please select a car to delete.", "Selection Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        String carName = (String) carTableModel.getValueAt(selectedRow, 0);
+        int confirm = JOptionPane.showConfirmDialog(this, 
+                "Are you sure you want to delete " + carName + "? This car will be permanently removed.", 
+                "Confirm Delete", JOptionPane.YES_NO_OPTION);
+
+        if (confirm == JOptionPane.YES_OPTION) {
+            UiTask.run(this, "Deleting car...", asyncDAO.deleteCar(carName), deleted -> {
+                if (deleted) {
+                    JOptionPane.showMessageDialog(this, carName + " deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to delete car from DB.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        }
+    }
+
+
+    // --- Booking View Panel ---
+    private JPanel createBookingPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBackground(new Color(40, 40, 40)); 
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        
+        // Virtual model: rows are fetched page by page as they scroll into view
+        bookingTableModel = new BookingTableModel(bookingRepository);
+        
+        bookingTable = new JTable(bookingTableModel);
+        bookingTable.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        bookingTable.getTableHeader().setFont(HEADER_FONT);
+        bookingTable.setRowHeight(20);
+        bookingTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+
+        // Clicking a header sorts by that column; clicking it again flips the direction
+        bookingTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = bookingTable.columnAtPoint(e.getPoint());
+                BookingQuery.Sort sort = column < 0 ? null
+                        : BookingQuery.Sort.forColumnIndex(bookingTable.convertColumnIndexToModel(column));
+                if (sort != null) {
+                    sortBookingsBy(sort);
+                }
+            }
+        });
+        
+        JScrollPane scrollPane = new JScrollPane(bookingTable);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(createBookingFilterBar(), BorderLayout.NORTH);
+
+        // Action Panel for Booking Controls
+        JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 15, 10));
+        actionPanel.setOpaque(false);
+        
+        JButton refreshBtn = createStyledButton("Refresh Bookings");
+        refreshBtn.addActionListener(e -> bookingTableModel.refreshChanges());
+        
+        // NEW: Delete Booking Button
+        JButton deleteBookingBtn = createStyledButton("Delete Selected Booking");
+        deleteBookingBtn.setBackground(new Color(200, 50, 50)); // Red background
+        deleteBookingBtn.setForeground(Color.WHITE);
+        deleteBookingBtn.addActionListener(e -> deleteBookingDetails());
+        
+        JButton importBookingsBtn = createStyledButton("Import CSV...");
+        importBookingsBtn.addActionListener(e -> importCsv(true));
+
+        JButton exportBookingsBtn = createStyledButton("Export CSV...");
+        exportBookingsBtn.addActionListener(e -> exportCsv(true));
+
+        actionPanel.add(importBookingsBtn);
+        actionPanel.add(exportBookingsBtn);
+        actionPanel.add(deleteBookingBtn);
+        actionPanel.add(refreshBtn);
+        
+        panel.add(actionPanel, BorderLayout.SOUTH);
+        
+        return panel;
+    }
+    
+    private void loadBookingData() {
+        bookingTableModel.refresh();
+    }
+
+    private JPanel createBookingFilterBar() {
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 5));
+        bar.setOpaque(false);
+
+        customerFilter = new JTextField(14);
+        customerFilter.setToolTipText("Start of the customer's name, email or phone");
+        carFilter = new JComboBox<>(new String[]{ANY_CAR});
+        locationFilter = new JTextField(10);
+        locationFilter.setToolTipText("Start of the pickup or drop-off location");
+        pickupFromFilter = new JTextField(8);
+        pickupFromFilter.setToolTipText("yyyy-MM-dd");
+        pickupToFilter = new JTextField(8);
+        pickupToFilter.setToolTipText("yyyy-MM-dd (inclusive)");
+
+        JButton searchBtn = createStyledButton("Search");
+        searchBtn.addActionListener(e -> searchBookings());
+        JButton clearBtn = createStyledButton("Clear");
+        clearBtn.addActionListener(e -> {
+            customerFilter.setText("");
+            carFilter.setSelectedItem(ANY_CAR);
+            locationFilter.setText("");
+            pickupFromFilter.setText("");
+            pickupToFilter.setText("");
+            searchBookings();
+        });
+        // Enter in any text box runs the search
+        for (JTextField field : new JTextField[]{customerFilter, locationFilter, pickupFromFilter, pickupToFilter}) {
+            field.addActionListener(e -> searchBookings());
+        }
+
+        bar.add(filterLabel("Customer:"));
+        bar.add(customerFilter);
+        bar.add(filterLabel("Car:"));
+        bar.add(carFilter);
+        bar.add(filterLabel("Location:"));
+        bar.add(locationFilter);
+        bar.add(filterLabel("Pickup from:"));
+        bar.add(pickupFromFilter);
+        bar.add(filterLabel("to:"));
+        bar.add(pickupToFilter);
+        bar.add(searchBtn);
+        bar.add(clearBtn);
+        return bar;
+    }
+
+    private JLabel filterLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setForeground(TEXT_COLOR);
+        return label;
+    }
+
+    /**
+     * Applies the search bar to the bookings table, keeping the current sort order.
+     */
+    private void searchBookings() {
+        Date pickupFrom;
+        Date pickupTo;
+        try {
+            pickupFrom = parseFilterDate(pickupFromFilter.getText(), false);
+            pickupTo = parseFilterDate(pickupToFilter.getText(), true);
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Please enter dates as yyyy-MM-dd.", "Invalid Date", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        Object car = carFilter.getSelectedItem();
+        BookingQuery current = bookingTableModel.getQuery();
+        bookingTableModel.setQuery(BookingQuery.builder()
+                .customer(customerFilter.getText())
+                .car(car == null || ANY_CAR.equals(car) ? null : car.toString())
+                .location(locationFilter.getText())
+                .pickupBetween(pickupFrom, pickupTo)
+                .sortBy(current.getSort(), current.isDescending())
+                .build());
+    }
+
+    private void sortBookingsBy(BookingQuery.Sort sort) {
+        BookingQuery current = bookingTableModel.getQuery();
+        boolean descending = current.getSort() == sort && !current.isDescending();
+        bookingTableModel.setQuery(current.toBuilder().sortBy(sort, descending).build());
+    }
+
+    // Start of the given day; for the (inclusive) end of a range, the start of the next day
+    private static Date parseFilterDate(String text, boolean endOfRange) {
+        if (text.trim().isEmpty()) {
+            return null;
+        }
+        LocalDate day = LocalDate.parse(text.trim());
+        if (endOfRange) {
+            day = day.plusDays(1);
+        }
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+    
+    /**
+     * Deletes the selected booking row using the Booking ID (first column).
+     */
+    private void deleteBookingDetails() {
+        int selectedRow = bookingTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "Please select a booking to delete.", "Selection Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        // The Booking ID is in the first column (index 0)
+        int bookingId = bookingTableModel.getBookingIdAt(selectedRow);
+        if (bookingId < 0) {
+            JOptionPane.showMessageDialog(this, "That booking is still loading. Please try again.", "Please Wait", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        String customerName = (String) bookingTableModel.getValueAt(selectedRow, 1);
+
+        int confirm = JOptionPane.showConfirmDialog(this, 
+                "Are you sure you want to permanently delete the booking for " + customerName + " (ID: " + bookingId + ")?", 
+                "Confirm Delete Booking", JOptionPane.YES_NO_OPTION);
+
+        if (confirm == JOptionPane.YES_OPTION) {
+            UiTask.run(this, "Deleting booking...", asyncDAO.deleteBooking(bookingId), deleted -> {
+                if (deleted) {
+                    // The row goes away when the BookingEvent arrives
+                    JOptionPane.showMessageDialog(this, "Booking ID " + bookingId + " deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to delete booking from DB.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        }
+    }
+
+    // --- CSV import / export ---
+
+    private void importCsv(boolean bookings) {
+        File file = chooseCsv(bookings ? "Import Bookings" : "Import Cars", false);
+        if (file == null) {
+            return;
+        }
+        UiTask.run(this, "Importing " + file.getName() + "...", AsyncDAO.supply(() -> {
+            try (Reader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                return bookings ? CsvTransfer.importBookings(in) : CsvTransfer.importCars(in);
+            }
+        }), this::showImportResult); // imported rows arrive as car/booking events
+    }
+
+    private void exportCsv(boolean bookings) {
+        File file = chooseCsv(bookings ? "Export Bookings" : "Export Cars", true);
+        if (file == null) {
+            return;
+        }
+        UiTask.run(this, "Exporting to " + file.getName() + "...", AsyncDAO.supply(() -> {
+            try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                return bookings ? CsvTransfer.exportBookings(out) : CsvTransfer.exportCars(out);
+            }
+        }), true, count -> JOptionPane.showMessageDialog(this,
+                count + " row(s) written to " + file.getName() + ".", "Export Complete", JOptionPane.INFORMATION_MESSAGE));
+    }
+
+    private File chooseCsv(String title, boolean save) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle(title);
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        int choice = save ? chooser.showSaveDialog(this) : chooser.showOpenDialog(this);
+        if (choice != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        File file = chooser.getSelectedFile();
+        if (save && !file.getName().toLowerCase().endsWith(".csv")) {
+            file = new File(file.getParentFile(), file.getName() + ".csv");
+        }
+        return file;
+    }
+
+    private void showImportResult(CsvTransfer.ImportResult result) {
+        if (result.getErrorCount() == 0) {
+            JOptionPane.showMessageDialog(this, result + ".", "Import Complete", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        // Rejected rows are listed so they can be fixed and imported again
+        JTextArea errors = new JTextArea(String.join("\n", result.getErrors()), 12, 60);
+        errors.setEditable(false);
+        JPanel message = new JPanel(new BorderLayout(0, 8));
+        message.add(new JLabel(result + ":"), BorderLayout.NORTH);
+        message.add(new JScrollPane(errors), BorderLayout.CENTER);
+        JOptionPane.showMessageDialog(this, message, "Import Finished With Errors", JOptionPane.WARNING_MESSAGE);
+    }
+
+    private JButton createStyledButton(String text) {
+        JButton btn = new JButton(text);
+        btn.setFont(BUTTON_FONT);
+        btn.setForeground(Color.BLACK);
+        btn.setBackground(Color.WHITE);
+        btn.setFocusPainted(false);
+        return btn;
+    }
+}
@@ -0,0 +1,117 @@
+// AsyncDAO.java
+package carrental;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncDAO - runs repository calls (see Repositories) off the Swing EDT.
+ *
+ * Every method returns a CompletableFuture that completes on a worker thread.
+ * Use UiTask to get the result back on the EDT. Cancelling a returned future
+ * interrupts the worker running it.
+ *
+ * Workers are virtual threads when the JVM has them (Java 21+) and a cached
+ * pool of daemon threads otherwise.
+ */
+public final class AsyncDAO {
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+    private static final AsyncDAO INSTANCE = new AsyncDAO();
+
+    private AsyncDAO() {
+    }
+
+    public static AsyncDAO getInstance() {
+        return INSTANCE;
+    }
+
+    public static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Runs the work on a worker thread.
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = EXECUTOR.submit(() -> {
+            try {
+                result.complete(work.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // --- Cars ---
+
+    public CompletableFuture<Map<String, Integer>> loadAllCars() {
+        return supply(() -> Repositories.cars().loadAllCars());
+    }
+
+    public CompletableFuture<Boolean> addCar(String model, int dailyRent) {
+        return supply(() -> Repositories.cars().addCar(model, dailyRent));
+    }
+
+    public CompletableFuture<Boolean> updateCarPrice(String model, int newDailyRent) {
+        return supply(() -> Repositories.cars().updateCarPrice(model, newDailyRent));
+    }
+
+    public CompletableFuture<Boolean> deleteCar(String model) {
+        return supply(() -> Repositories.cars().deleteCar(model));
+    }
+
+    // --- Bookings ---
+
+    public CompletableFuture<Boolean> deleteBooking(int bookingId) {
+        return supply(() -> Repositories.bookings().deleteBooking(bookingId));
+    }
+
+    // --- Users ---
+
+    public CompletableFuture<Boolean> registerUser(String username, String password) {
+        return supply(() -> Repositories.users().registerUser(username, password));
+    }
+
+    /**
+     * Logs the user in; completes with their session, or null if the
+     * credentials are wrong. A live cached session skips the users table.
+     */
+    public CompletableFuture<SessionCache.Session> login(String username, String password) {
+        SessionCache sessions = SessionCache.getInstance();
+        SessionCache.Session cached = sessions.resume(username, password);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return supply(() -> Repositories.users().loginUser(username, password)
+                ? sessions.open(username, password) : null);
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // No virtual threads on this JVM; plain daemon threads do the same job
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "dao-async-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
@@ -0,0 +1,308 @@
+// AvailabilityIndex.java
+package carrental;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AvailabilityIndex - in-memory record of when each car is booked, used to
+ * refuse double bookings without scanning the bookings table.
+ *
+ * Each car keeps a TreeMap of non-overlapping busy ranges keyed by start
+ * time, so "is this window free?" is a floor/higher lookup: O(log n).
+ * Windows are half-open, [pickup, drop), so a car can be picked up at the
+ * minute it was dropped off.
+ *
+ * The index is built from the bookings table on first use and then kept up
+ * to date incrementally: new bookings are held before they are saved and
+ * confirmed with their id afterwards; deleted bookings are removed.
+ */
+public final class AvailabilityIndex {
+
+    private static final AvailabilityIndex INSTANCE = new AvailabilityIndex();
+
+    private final Map<String, CarSchedule> schedules = new ConcurrentHashMap<>();
+    private final Map<Integer, Slot> slotsById = new ConcurrentHashMap<>();
+    // Holds get negative ids until the booking is saved and has a real one
+    private final AtomicInteger nextHoldId = new AtomicInteger();
+    private volatile boolean loaded = false;
+    // While a rebuild streams the bookings, add/remove calls are queued here and
+    // replayed when it ends: its cursor may already have passed those rows
+    private final Object updateLock = new Object();
+    private boolean rebuilding = false;
+    private final List<Runnable> updatesDuringRebuild = new ArrayList<>();
+
+    private AvailabilityIndex() {
+    }
+
+    public static AvailabilityIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Loads every booking from the configured backend if that has not happened yet.
+     */
+    public void ensureLoaded() throws SQLException {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild(Repositories.bookings());
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards the index and rebuilds it from the given bookings.
+     * Outstanding holds are dropped, so call this at startup, not mid-checkout.
+     */
+    public synchronized void rebuild(BookingRepository bookings) throws SQLException {
+        synchronized (updateLock) {
+            rebuilding = true;
+            loaded = false;
+            schedules.clear();
+            slotsById.clear();
+        }
+        boolean done = false;
+        try {
+            bookings.forEachBooking(b -> {
+                if (!b.getDrop().after(b.getPickup())) {
+                    return; // an empty window blocks nothing, and would clash with a real one starting then
+                }
+                Slot slot = new Slot(b.getId(), b.getCar(), b.getPickup().getTime(), b.getDrop().getTime());
+                // Existing data may already contain double bookings; keep them rather than lose them
+                schedule(slot.car).insert(slot, true);
+                slotsById.put(slot.id, slot);
+            });
+            done = true;
+        } finally {
+            synchronized (updateLock) {
+                rebuilding = false;
+                loaded = done;
+                // Still under the lock, so no newer add or remove can overtake these.
+                // After a failed load they are dropped: the next load reads them
+                updatesDuringRebuild.forEach(Runnable::run);
+                updatesDuringRebuild.clear();
+            }
+        }
+    }
+
+    /**
+     * True if the car has no booking overlapping [pickup, drop).
+     */
+    public boolean isAvailable(String car, Date pickup, Date drop) throws SQLException {
+        ensureLoaded();
+        CarSchedule schedule = schedules.get(car);
+        return schedule == null || !schedule.overlaps(pickup.getTime(), drop.getTime());
+    }
+
+    /**
+     * Reserves the window for a booking that is about to be saved.
+     * @throws IllegalArgumentException if drop is not after pickup
+     * @throws ConflictException if the car is already booked in that window
+     */
+    public Hold hold(String car, Date pickup, Date drop) throws SQLException, ConflictException {
+        if (!drop.after(pickup)) {
+            throw new IllegalArgumentException("Drop date must be after pickup date.");
+        }
+        ensureLoaded();
+        Slot slot = new Slot(nextHoldId.decrementAndGet(), car, pickup.getTime(), drop.getTime());
+        if (!schedule(car).insert(slot, false)) {
+            throw new ConflictException(car + " is already booked between those dates.");
+        }
+        return new Hold(slot);
+    }
+
+    /**
+     * Turns a hold into a booking once the database has assigned its id.
+     */
+    public void confirm(Hold hold, int bookingId) {
+        CarSchedule schedule = schedule(hold.slot.car);
+        synchronized (schedule) {
+            hold.slot.id = bookingId;
+            if (!schedule.contains(hold.slot)) {
+                // Released while the save was still running; it is a booking after all
+                schedule.insert(hold.slot, true);
+            }
+        }
+        slotsById.put(bookingId, hold.slot);
+    }
+
+    /**
+     * Gives up a hold whose booking was never saved. Does nothing once the
+     * hold has been confirmed: the window belongs to a booking by then.
+     */
+    public void release(Hold hold) {
+        CarSchedule schedule = schedule(hold.slot.car);
+        synchronized (schedule) {
+            if (hold.slot.id > 0) {
+                return;
+            }
+            schedule.remove(hold.slot);
+        }
+    }
+
+    /**
+     * Records a booking saved outside the hold/confirm flow. Empty windows
+     * (drop not after pickup) are ignored. During a rebuild the booking is
+     * recorded once the rebuild ends.
+     */
+    public void add(int bookingId, String car, Date pickup, Date drop) {
+        synchronized (updateLock) {
+            if (rebuilding) {
+                updatesDuringRebuild.add(() -> add(bookingId, car, pickup, drop));
+                return;
+            }
+            if (!loaded || slotsById.containsKey(bookingId) || !drop.after(pickup)) {
+                return; // read by the first load, already known, or blocks nothing
+            }
+            Slot slot = new Slot(bookingId, car, pickup.getTime(), drop.getTime());
+            schedule(car).insert(slot, true);
+            slotsById.put(bookingId, slot);
+        }
+    }
+
+    /**
+     * Forgets a deleted booking, freeing its window. During a rebuild this
+     * happens once the rebuild ends.
+     */
+    public void remove(int bookingId) {
+        synchronized (updateLock) {
+            if (rebuilding) {
+                updatesDuringRebuild.add(() -> remove(bookingId));
+                return;
+            }
+            Slot slot = slotsById.remove(bookingId);
+            if (slot != null) {
+                schedule(slot.car).remove(slot);
+            }
+        }
+    }
+
+    private CarSchedule schedule(String car) {
+        return schedules.computeIfAbsent(car, c -> new CarSchedule());
+    }
+
+    /**
+     * A reserved window that has not been saved yet.
+     */
+    public static final class Hold {
+        private final Slot slot;
+
+        private Hold(Slot slot) {
+            this.slot = slot;
+        }
+    }
+
+    public static final class ConflictException extends Exception {
+        public ConflictException(String message) {
+            super(message);
+        }
+    }
+
+    // One booking's window
+    private static final class Slot {
+        int id;
+        final String car;
+        final long start;
+        final long end;
+
+        Slot(int id, String car, long start, long end) {
+            this.id = id;
+            this.car = car;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    // A busy stretch of time; holds several slots only if legacy data overlaps
+    private static final class Range {
+        final long start;
+        final long end;
+        final List<Slot> slots;
+
+        Range(long start, long end, List<Slot> slots) {
+            this.start = start;
+            this.end = end;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * Busy ranges for one car, sorted by start and never overlapping each other.
+     */
+    private static final class CarSchedule {
+        private final TreeMap<Long, Range> ranges = new TreeMap<>();
+
+        synchronized boolean overlaps(long start, long end) {
+            Map.Entry<Long, Range> before = ranges.floorEntry(start);
+            if (before != null && before.getValue().end > start) {
+                return true;
+            }
+            Map.Entry<Long, Range> after = ranges.higherEntry(start);
+            return after != null && after.getKey() < end;
+        }
+
+        /**
+         * Adds the slot. If it overlaps existing ranges it is refused, unless
+         * mergeOverlaps is set, in which case the ranges are merged into one.
+         */
+        synchronized boolean insert(Slot slot, boolean mergeOverlaps) {
+            if (!overlaps(slot.start, slot.end)) {
+                List<Slot> slots = new ArrayList<>(1);
+                slots.add(slot);
+                ranges.put(slot.start, new Range(slot.start, slot.end, slots));
+                return true;
+            }
+            if (!mergeOverlaps) {
+                return false;
+            }
+            long start = slot.start;
+            long end = slot.end;
+            List<Slot> merged = new ArrayList<>();
+            merged.add(slot);
+            Map.Entry<Long, Range> before = ranges.floorEntry(slot.start);
+            Long from = before != null && before.getValue().end > slot.start ? before.getKey() : slot.start;
+            Iterator<Range> it = ranges.tailMap(from, true).values().iterator();
+            while (it.hasNext()) {
+                Range r = it.next();
+                if (r.start >= slot.end) {
+                    break;
+                }
+                start = Math.min(start, r.start);
+                end = Math.max(end, r.end);
+                merged.addAll(r.slots);
+                it.remove();
+            }
+            ranges.put(start, new Range(start, end, merged));
+            return true;
+        }
+
+        synchronized boolean contains(Slot slot) {
+            Map.Entry<Long, Range> entry = ranges.floorEntry(slot.start);
+            return entry != null && entry.getValue().slots.contains(slot);
+        }
+
+        synchronized void remove(Slot slot) {
+            Map.Entry<Long, Range> entry = ranges.floorEntry(slot.start);
+            if (entry == null || !entry.getValue().slots.contains(slot)) {
+                return;
+            }
+            Range range = entry.getValue();
+            ranges.remove(entry.getKey());
+            // Re-add whatever else shared the range; it may now split apart
+            for (Slot other : range.slots) {
+                if (other != slot) {
+                    insert(other, true);
+                }
+            }
+        }
+    }
+}
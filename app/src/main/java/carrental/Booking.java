@@ -0,0 +1,64 @@
+// Booking.java
+package carrental;
+
+import java.util.Date;
+
+/**
+ * Booking - one row of the bookings table.
+ * An id of 0 means the booking has not been saved yet.
+ */
+public class Booking {
+
+    private final int id;
+    private final String name;
+    private final String email;
+    private final String phone;
+    private final String address;
+    private final String car;
+    private final Date pickup;
+    private final Date drop;
+    private final String pickupLocation;
+    private final String dropoffLocation;
+    private final int price;
+
+    public Booking(int id, String name, String email, String phone, String address,
+                   String car, Date pickup, Date drop,
+                   String pickupLocation, String dropoffLocation, int price) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.address = address;
+        this.car = car;
+        this.pickup = pickup;
+        this.drop = drop;
+        this.pickupLocation = pickupLocation;
+        this.dropoffLocation = dropoffLocation;
+        this.price = price;
+    }
+
+    public Booking(String name, String email, String phone, String address,
+                   String car, Date pickup, Date drop,
+                   String pickupLocation, String dropoffLocation, int price) {
+        this(0, name, email, phone, address, car, pickup, drop,
+             pickupLocation, dropoffLocation, price);
+    }
+
+    // Copy of this booking carrying the id the database generated for it
+    public Booking withId(int newId) {
+        return new Booking(newId, name, email, phone, address, car, pickup, drop,
+                           pickupLocation, dropoffLocation, price);
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getPhone() { return phone; }
+    public String getAddress() { return address; }
+    public String getCar() { return car; }
+    public Date getPickup() { return pickup; }
+    public Date getDrop() { return drop; }
+    public String getPickupLocation() { return pickupLocation; }
+    public String getDropoffLocation() { return dropoffLocation; }
+    public int getPrice() { return price; }
+}
@@ -0,0 +1,549 @@
+package carrental;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.Vector;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class BookingDAO implements BookingRepository {
+
+    private static final String TABLE_NAME = "bookings";
+
+    private static final DaoMetrics.Operation INSERT = DaoMetrics.operation("BookingDAO", "insertBooking");
+    private static final DaoMetrics.Operation LOAD_PAGE = DaoMetrics.operation("BookingDAO", "loadBookingsPage");
+    private static final DaoMetrics.Operation LOAD_AT = DaoMetrics.operation("BookingDAO", "loadBookingsAt");
+    private static final DaoMetrics.Operation COUNT = DaoMetrics.operation("BookingDAO", "countBookings");
+    private static final DaoMetrics.Operation FIND = DaoMetrics.operation("BookingDAO", "findBookings");
+    private static final DaoMetrics.Operation FIND_AFTER = DaoMetrics.operation("BookingDAO", "findBookingsAfter");
+    // Streaming reads: the time includes the caller's handler
+    private static final DaoMetrics.Operation FOR_EACH = DaoMetrics.operation("BookingDAO", "forEachBooking");
+    private static final DaoMetrics.Operation FOR_EACH_PICKUP = DaoMetrics.operation("BookingDAO", "forEachBookingPickedUpBetween");
+    private static final DaoMetrics.Operation DELETE = DaoMetrics.operation("BookingDAO", "deleteBooking");
+    private static final DaoMetrics.Operation CHANGES = DaoMetrics.operation("BookingDAO", "changesSince");
+
+    public static final String[] COLUMN_NAMES = {
+        "ID", "Name", "Email", "Phone", "Address", "Car", "Pickup Date",
+        "Drop Date", "Pickup Location", "Drop-off Location", "Price ($)"
+    };
+
+    static final String INSERT_SQL = "INSERT INTO " + TABLE_NAME + " "
+            + "(name,email,phone,address,car,pickup_date,drop_date,pickup_location,dropoff_location,price) "
+            + "VALUES (?,?,?,?,?,?,?,?,?,?)";
+
+    /**
+     * Binds a booking to the parameters of INSERT_SQL.
+     */
+    static void bindInsert(PreparedStatement ps, Booking b) throws SQLException {
+        ps.setString(1, b.getName());
+        ps.setString(2, b.getEmail());
+        ps.setString(3, b.getPhone());
+        ps.setString(4, b.getAddress());
+        ps.setString(5, b.getCar());
+        ps.setTimestamp(6, new Timestamp(b.getPickup().getTime()));
+        ps.setTimestamp(7, new Timestamp(b.getDrop().getTime()));
+        ps.setString(8, b.getPickupLocation());
+        ps.setString(9, b.getDropoffLocation());
+        ps.setInt(10, b.getPrice());
+    }
+
+    /**
+     * Inserts a single booking in its own statement and commit, without
+     * checking the car's availability or price. Interactive callers should
+     * book through BookingService, which does both.
+     * @return the generated booking id
+     */
+    public int insertBooking(Booking booking) throws SQLException {
+        long start = System.nanoTime();
+        int id;
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsert(ps, booking);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("Booking insert returned no generated id.");
+                }
+                id = keys.getInt(1);
+            }
+        } catch (SQLException e) {
+            INSERT.failure(start, e);
+            throw e;
+        }
+        INSERT.success(start, 1);
+        EventBus.getInstance().publish(BookingEvent.created(booking.withId(id)));
+        return id;
+    }
+
+    static final String SELECT_COLUMNS = "SELECT id, name, email, phone, address, car, pickup_date, "
+            + "drop_date, pickup_location, dropoff_location, price FROM " + TABLE_NAME;
+
+    /** Rows per page when callers do not ask for a specific size. */
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    /**
+     * Fetches all booking records, ordered by ID ascending.
+     * Holds every row in memory; prefer loadBookingsPage or forEachBooking for large tables.
+     */
+    public Vector<Vector<Object>> loadAllBookings() {
+        Vector<Vector<Object>> bookingData = new Vector<>();
+        try {
+            forEachBooking(b -> bookingData.add(toRow(b)));
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return bookingData;
+    }
+
+    /**
+     * Keyset page: up to pageSize bookings with id greater than afterId, ordered by id.
+     * Pass 0 for the first page and the last id of the previous page after that.
+     */
+    public List<Booking> loadBookingsPage(int afterId, int pageSize) throws SQLException {
+        String sql = SELECT_COLUMNS + " WHERE id > ? ORDER BY id ASC LIMIT ?";
+        List<Booking> page = new ArrayList<>(Math.min(pageSize, DEFAULT_PAGE_SIZE));
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, afterId);
+            ps.setInt(2, pageSize);
+            ps.setFetchSize(pageSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    page.add(mapBooking(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOAD_PAGE.failure(start, e);
+            throw e;
+        }
+        LOAD_PAGE.success(start, page.size());
+        return page;
+    }
+
+    /**
+     * Offset page: up to limit bookings starting at row offset, ordered by id.
+     * Needed for random access (e.g. jumping the scrollbar); sequential readers
+     * should use loadBookingsPage, which does not rescan the skipped rows.
+     */
+    public List<Booking> loadBookingsAt(int offset, int limit) throws SQLException {
+        String sql = SELECT_COLUMNS + " ORDER BY id ASC LIMIT ? OFFSET ?";
+        List<Booking> page = new ArrayList<>(Math.min(limit, DEFAULT_PAGE_SIZE));
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            ps.setInt(2, offset);
+            ps.setFetchSize(limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    page.add(mapBooking(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOAD_AT.failure(start, e);
+            throw e;
+        }
+        LOAD_AT.success(start, page.size());
+        return page;
+    }
+
+    public int countBookings() throws SQLException {
+        return countBookings(BookingQuery.ALL);
+    }
+
+    public int countBookings(BookingQuery query) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String where = where(query, params);
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM " + TABLE_NAME + where)) {
+            bind(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                int count = rs.next() ? rs.getInt(1) : 0;
+                COUNT.success(start, 1);
+                return count;
+            }
+        } catch (SQLException e) {
+            COUNT.failure(start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Offset page of the bookings matching the query, in its order.
+     * Deep offsets rescan the skipped rows; page forward with findBookingsAfter where possible.
+     */
+    public List<Booking> findBookings(BookingQuery query, int offset, int limit) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = SELECT_COLUMNS + where(query, params) + orderBy(query) + " LIMIT ? OFFSET ?";
+        params.add(limit);
+        params.add(offset);
+        return findPage(FIND, sql, params, limit);
+    }
+
+    /**
+     * Keyset page of the bookings matching the query: the rows after last in
+     * the query's order. Costs the same however deep the page is.
+     */
+    public List<Booking> findBookingsAfter(BookingQuery query, Booking last, int limit) throws SQLException {
+        if (!query.supportsKeyset()) {
+            throw new IllegalArgumentException("Keyset paging needs a NOT NULL sort column: " + query.getSort());
+        }
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder(where(query, params));
+        where.append(where.length() == 0 ? " WHERE " : " AND ");
+        String cmp = query.isDescending() ? "<" : ">";
+        if (query.getSort() == BookingQuery.Sort.ID) {
+            where.append("id ").append(cmp).append(" ?");
+        } else {
+            // Written as a range plus a tie-break so the optimizer can seek the sort index
+            String col = query.getSort().getColumn();
+            where.append(col).append(' ').append(cmp).append("= ? AND (")
+                    .append(col).append(' ').append(cmp).append(" ? OR id ").append(cmp).append(" ?)");
+            params.add(query.getSort().valueOf(last));
+            params.add(query.getSort().valueOf(last));
+        }
+        params.add(last.getId());
+        String sql = SELECT_COLUMNS + where + orderBy(query) + " LIMIT ?";
+        params.add(limit);
+        return findPage(FIND_AFTER, sql, params, limit);
+    }
+
+    private List<Booking> findPage(DaoMetrics.Operation op, String sql, List<Object> params, int limit)
+            throws SQLException {
+        List<Booking> page = new ArrayList<>(Math.min(limit, DEFAULT_PAGE_SIZE));
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            bind(ps, params);
+            ps.setFetchSize(limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    page.add(mapBooking(rs));
+                }
+            }
+        } catch (SQLException e) {
+            op.failure(start, e);
+            throw e;
+        }
+        op.success(start, page.size());
+        return page;
+    }
+
+    // WHERE clause for the query's filters (empty if none); values are appended to params
+    private static String where(BookingQuery q, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (q.getCar() != null) {
+            conditions.add("car = ?");
+            params.add(q.getCar());
+        }
+        if (q.getCustomer() != null) {
+            // One prefix range per column; MySQL merges the three indexes
+            String prefix = likePrefix(q.getCustomer());
+            conditions.add("(name LIKE ? ESCAPE '!' OR email LIKE ? ESCAPE '!' OR phone LIKE ? ESCAPE '!')");
+            params.add(prefix);
+            params.add(prefix);
+            params.add(prefix);
+        }
+        if (q.getLocation() != null) {
+            String prefix = likePrefix(q.getLocation());
+            conditions.add("(pickup_location LIKE ? ESCAPE '!' OR dropoff_location LIKE ? ESCAPE '!')");
+            params.add(prefix);
+            params.add(prefix);
+        }
+        addRange(conditions, params, "pickup_date", q.getPickupFrom(), q.getPickupTo());
+        addRange(conditions, params, "drop_date", q.getDropFrom(), q.getDropTo());
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static void addRange(List<String> conditions, List<Object> params, String column, Date from, Date to) {
+        if (from != null) {
+            conditions.add(column + " >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            conditions.add(column + " < ?");
+            params.add(to);
+        }
+    }
+
+    // Both keys run the same direction so an index on the sort column can be read backwards too
+    private static String orderBy(BookingQuery q) {
+        String dir = q.isDescending() ? " DESC" : " ASC";
+        if (q.getSort() == BookingQuery.Sort.ID) {
+            return " ORDER BY id" + dir;
+        }
+        return " ORDER BY " + q.getSort().getColumn() + dir + ", id" + dir;
+    }
+
+    private static String likePrefix(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    private static void bind(PreparedStatement ps, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            Object value = params.get(i);
+            if (value instanceof Date) {
+                ps.setTimestamp(i + 1, new Timestamp(((Date) value).getTime()));
+            } else {
+                ps.setObject(i + 1, value);
+            }
+        }
+    }
+
+    /**
+     * Cursor over the bookings table that fetches one keyset page at a time.
+     */
+    public PageCursor openCursor(int pageSize) {
+        return new PageCursor(pageSize);
+    }
+
+    /**
+     * Streams every booking, ordered by id, to the handler one row at a time
+     * over a forward-only, read-only result set. Only the current row is held.
+     */
+    public void forEachBooking(Consumer<Booking> handler) throws SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = prepareStreaming(conn, SELECT_COLUMNS + " ORDER BY id ASC");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                handler.accept(mapBooking(rs));
+                rows++;
+            }
+        } catch (SQLException | RuntimeException e) {
+            FOR_EACH.failure(start, e);
+            throw e;
+        }
+        FOR_EACH.success(start, rows);
+    }
+
+    /**
+     * Streams the bookings picked up in [from, to), ordered by pickup date.
+     */
+    public void forEachBookingPickedUpBetween(Date from, Date to, Consumer<Booking> handler) throws SQLException {
+        // Served by idx_bookings_pickup
+        String sql = SELECT_COLUMNS + " WHERE pickup_date >= ? AND pickup_date < ? ORDER BY pickup_date, id";
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = prepareStreaming(conn, sql)) {
+            ps.setTimestamp(1, new Timestamp(from.getTime()));
+            ps.setTimestamp(2, new Timestamp(to.getTime()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(mapBooking(rs));
+                    rows++;
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            FOR_EACH_PICKUP.failure(start, e);
+            throw e;
+        }
+        FOR_EACH_PICKUP.success(start, rows);
+    }
+
+    /**
+     * Lazily streams every booking, ordered by id. The stream holds a pooled
+     * connection until it is closed, so use it in a try-with-resources block.
+     */
+    public Stream<Booking> streamBookings() throws SQLException {
+        Connection conn = DBUtil.getConnection();
+        try {
+            PreparedStatement ps = prepareStreaming(conn, SELECT_COLUMNS + " ORDER BY id ASC");
+            ResultSet rs = ps.executeQuery();
+            Spliterator<Booking> rows = new Spliterators.AbstractSpliterator<Booking>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Booking> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(mapBooking(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Failed to read bookings", e);
+                    }
+                }
+            };
+            return StreamSupport.stream(rows, false).onClose(() -> {
+                try {
+                    conn.close(); // returns to the pool, closing ps and rs with it
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    // Forward-only, read-only statement with the driver's streaming fetch size
+    static PreparedStatement prepareStreaming(Connection conn, String sql) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(DBUtil.streamingFetchSize());
+        return ps;
+    }
+
+    static Booking mapBooking(ResultSet rs) throws SQLException {
+        return new Booking(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getString("address"),
+                rs.getString("car"),
+                rs.getTimestamp("pickup_date"),
+                rs.getTimestamp("drop_date"),
+                rs.getString("pickup_location"),
+                rs.getString("dropoff_location"),
+                rs.getInt("price"));
+    }
+
+    /**
+     * Converts a booking to a table row matching COLUMN_NAMES.
+     */
+    public static Vector<Object> toRow(Booking b) {
+        Vector<Object> row = new Vector<>(COLUMN_NAMES.length);
+        row.add(b.getId());
+        row.add(b.getName());
+        row.add(b.getEmail());
+        row.add(b.getPhone());
+        row.add(b.getAddress());
+        row.add(b.getCar());
+        row.add(new Timestamp(b.getPickup().getTime()).toString().substring(0, 16));
+        row.add(new Timestamp(b.getDrop().getTime()).toString().substring(0, 16));
+        row.add(b.getPickupLocation());
+        row.add(b.getDropoffLocation());
+        row.add(b.getPrice());
+        return row;
+    }
+
+    /**
+     * Deletes a specific booking record by its ID, leaving a tombstone for
+     * incremental refreshes.
+     * @param bookingId The ID of the booking to delete.
+     * @return true if the deletion was successful, false otherwise.
+     */
+    public boolean deleteBooking(int bookingId) {
+        String sql = "DELETE FROM " + TABLE_NAME + " WHERE id = ?";
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false); // the pool restores autocommit when the connection goes back
+            ps.setInt(1, bookingId);
+            if (ps.executeUpdate() == 0) {
+                conn.rollback();
+                DELETE.success(start, 0);
+                return false;
+            }
+            ChangeLog.recordDelete(conn, TABLE_NAME, String.valueOf(bookingId));
+            conn.commit();
+            DELETE.success(start, 1);
+            AvailabilityIndex.getInstance().remove(bookingId);
+            EventBus.getInstance().publish(BookingEvent.deleted(bookingId));
+            return true;
+        } catch (SQLException e) {
+            DELETE.failure(start, e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public long changeToken() throws SQLException {
+        return ChangeLog.now();
+    }
+
+    /**
+     * Bookings changed since the token, read through idx_bookings_updated.
+     */
+    public ChangeSet<Booking> changesSince(long token) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection()) {
+            long now = ChangeLog.now(conn);
+            if (ChangeLog.tooOld(token, now)) {
+                CHANGES.success(start, 0);
+                return ChangeSet.reset(now);
+            }
+            List<Booking> changed = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_COLUMNS + " WHERE updated_at >= ? ORDER BY id")) {
+                ps.setTimestamp(1, ChangeLog.since(token));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        changed.add(mapBooking(rs));
+                    }
+                }
+            }
+            List<String> deleted = ChangeLog.deletedSince(conn, TABLE_NAME, token);
+            CHANGES.success(start, changed.size() + deleted.size());
+            return new ChangeSet<>(changed, deleted, now, false);
+        } catch (SQLException e) {
+            CHANGES.failure(start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Walks the bookings table page by page using keyset pagination on id,
+     * so each page costs the same no matter how deep the cursor is.
+     */
+    public class PageCursor {
+        private final int pageSize;
+        private int lastId = 0;
+        private List<Booking> nextPage;
+        private boolean exhausted = false;
+
+        PageCursor(int pageSize) {
+            if (pageSize < 1) {
+                throw new IllegalArgumentException("Page size must be at least 1");
+            }
+            this.pageSize = pageSize;
+        }
+
+        public boolean hasNext() throws SQLException {
+            if (nextPage == null && !exhausted) {
+                nextPage = loadBookingsPage(lastId, pageSize);
+                if (nextPage.isEmpty()) {
+                    exhausted = true;
+                    nextPage = null;
+                } else {
+                    lastId = nextPage.get(nextPage.size() - 1).getId();
+                    // A short page means there is nothing after it
+                    exhausted = nextPage.size() < pageSize;
+                }
+            }
+            return nextPage != null;
+        }
+
+        public List<Booking> next() throws SQLException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<Booking> page = nextPage;
+            nextPage = null;
+            return Collections.unmodifiableList(page);
+        }
+
+        // Id of the last booking returned so far; resume a cursor from here later
+        public int getLastId() {
+            return lastId;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+// BookingEvent.java
+package carrental;
+
+/**
+ * BookingEvent - a booking was saved or deleted, or a batch of bookings
+ * was imported.
+ * Published on the EventBus once the change is committed.
+ */
+public final class BookingEvent {
+
+    public enum Kind { CREATED, DELETED, IMPORTED }
+
+    private final Kind kind;
+    private final int bookingId;
+    private final Booking booking;
+    private final int count;
+
+    private BookingEvent(Kind kind, int bookingId, Booking booking, int count) {
+        this.kind = kind;
+        this.bookingId = bookingId;
+        this.booking = booking;
+        this.count = count;
+    }
+
+    // The booking as saved, with its generated id
+    public static BookingEvent created(Booking saved) {
+        return new BookingEvent(Kind.CREATED, saved.getId(), saved, 1);
+    }
+
+    public static BookingEvent deleted(int bookingId) {
+        return new BookingEvent(Kind.DELETED, bookingId, null, 1);
+    }
+
+    // Bookings added in bulk; reload rather than expect one event per booking
+    public static BookingEvent imported(int count) {
+        return new BookingEvent(Kind.IMPORTED, 0, null, count);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // 0 for IMPORTED
+    public int getBookingId() {
+        return bookingId;
+    }
+
+    // The saved booking for CREATED; null otherwise
+    public Booking getBooking() {
+        return booking;
+    }
+
+    // Bookings the event covers: the number imported for IMPORTED, otherwise 1
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        if (kind == Kind.IMPORTED) {
+            return "BookingEvent[IMPORTED " + count + " bookings]";
+        }
+        return "BookingEvent[" + kind + " #" + bookingId + "]";
+    }
+}
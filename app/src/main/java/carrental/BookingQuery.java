@@ -0,0 +1,281 @@
+// BookingQuery.java
+package carrental;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * BookingQuery - filters and sort order for searching bookings.
+ *
+ * Built with BookingQuery.builder(); every filter is optional and an empty
+ * query matches every booking, ordered by id. Text filters are
+ * case-insensitive prefix matches so the database can answer them from an
+ * index (see SchemaMigrator V6). Date ranges are half-open: [from, to).
+ *
+ * Paging is not part of the query: pass it to BookingRepository.findBookings
+ * (offset) or findBookingsAfter (keyset).
+ */
+public final class BookingQuery {
+
+    /** Every booking, ordered by id. */
+    public static final BookingQuery ALL = builder().build();
+
+    /**
+     * Sortable columns, each with its index in BookingDAO.COLUMN_NAMES (and
+     * BookingDAO.toRow). Ties are always broken by id, so every order is total.
+     */
+    public enum Sort {
+        ID(0, "id", Booking::getId, false),
+        NAME(1, "name", Booking::getName, false),
+        EMAIL(2, "email", Booking::getEmail, false),
+        PHONE(3, "phone", Booking::getPhone, false),
+        ADDRESS(4, "address", Booking::getAddress, true),
+        CAR(5, "car", Booking::getCar, false),
+        PICKUP_DATE(6, "pickup_date", Booking::getPickup, false),
+        DROP_DATE(7, "drop_date", Booking::getDrop, false),
+        PICKUP_LOCATION(8, "pickup_location", Booking::getPickupLocation, true),
+        DROPOFF_LOCATION(9, "dropoff_location", Booking::getDropoffLocation, true),
+        PRICE(10, "price", Booking::getPrice, false);
+
+        private final int columnIndex;
+        private final String column;
+        private final Function<Booking, Object> value;
+        private final boolean nullable;
+
+        Sort(int columnIndex, String column, Function<Booking, Object> value, boolean nullable) {
+            this.columnIndex = columnIndex;
+            this.column = column;
+            this.value = value;
+            this.nullable = nullable;
+        }
+
+        /** The sort for a table column, or null if that column cannot be sorted on. */
+        public static Sort forColumnIndex(int columnIndex) {
+            for (Sort s : values()) {
+                if (s.columnIndex == columnIndex) {
+                    return s;
+                }
+            }
+            return null;
+        }
+
+        /** Index of the column in BookingDAO.COLUMN_NAMES. */
+        public int getColumnIndex() {
+            return columnIndex;
+        }
+
+        /** SQL column name. */
+        public String getColumn() {
+            return column;
+        }
+
+        /** The booking's value in this column. */
+        public Object valueOf(Booking booking) {
+            return value.apply(booking);
+        }
+
+        // Keyset paging needs a column without NULLs
+        public boolean isNullable() {
+            return nullable;
+        }
+    }
+
+    private final String car;
+    private final String customer;
+    private final String location;
+    private final Date pickupFrom;
+    private final Date pickupTo;
+    private final Date dropFrom;
+    private final Date dropTo;
+    private final Sort sort;
+    private final boolean descending;
+
+    private BookingQuery(Builder b) {
+        this.car = b.car;
+        this.customer = b.customer;
+        this.location = b.location;
+        this.pickupFrom = b.pickupFrom;
+        this.pickupTo = b.pickupTo;
+        this.dropFrom = b.dropFrom;
+        this.dropTo = b.dropTo;
+        this.sort = b.sort;
+        this.descending = b.descending;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** A builder starting from this query's filters and order. */
+    public Builder toBuilder() {
+        Builder b = new Builder();
+        b.car = car;
+        b.customer = customer;
+        b.location = location;
+        b.pickupFrom = pickupFrom;
+        b.pickupTo = pickupTo;
+        b.dropFrom = dropFrom;
+        b.dropTo = dropTo;
+        b.sort = sort;
+        b.descending = descending;
+        return b;
+    }
+
+    // Exact car model, or null for any car
+    public String getCar() {
+        return car;
+    }
+
+    // Prefix of the customer's name, email or phone, or null
+    public String getCustomer() {
+        return customer;
+    }
+
+    // Prefix of the pickup or drop-off location, or null
+    public String getLocation() {
+        return location;
+    }
+
+    public Date getPickupFrom() {
+        return pickupFrom;
+    }
+
+    public Date getPickupTo() {
+        return pickupTo;
+    }
+
+    public Date getDropFrom() {
+        return dropFrom;
+    }
+
+    public Date getDropTo() {
+        return dropTo;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /** True when pages can be fetched by keyset, i.e. the sort column has no NULLs. */
+    public boolean supportsKeyset() {
+        return !sort.isNullable();
+    }
+
+    /** True when the query has no filters (the sort order may still differ from ALL). */
+    public boolean isUnfiltered() {
+        return car == null && customer == null && location == null
+                && pickupFrom == null && pickupTo == null && dropFrom == null && dropTo == null;
+    }
+
+    /**
+     * Whether the booking passes every filter. Used by the in-memory
+     * backend; BookingDAO applies the same rules in SQL.
+     */
+    public boolean matches(Booking b) {
+        if (car != null && !car.equals(b.getCar())) {
+            return false;
+        }
+        if (customer != null && !startsWith(b.getName(), customer)
+                && !startsWith(b.getEmail(), customer) && !startsWith(b.getPhone(), customer)) {
+            return false;
+        }
+        if (location != null && !startsWith(b.getPickupLocation(), location)
+                && !startsWith(b.getDropoffLocation(), location)) {
+            return false;
+        }
+        return inRange(b.getPickup(), pickupFrom, pickupTo) && inRange(b.getDrop(), dropFrom, dropTo);
+    }
+
+    /**
+     * The query's order as a comparator (NULLs first, text ignoring case,
+     * ties by id), matching what BookingDAO gets from MySQL's default collation.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<Booking> comparator() {
+        Comparator<Object> values = (x, y) -> x instanceof String
+                ? String.CASE_INSENSITIVE_ORDER.compare((String) x, (String) y)
+                : ((Comparable) x).compareTo(y);
+        Comparator<Booking> bySort = Comparator.comparing(sort::valueOf, Comparator.nullsFirst(values));
+        Comparator<Booking> order = bySort.thenComparingInt(Booking::getId);
+        return descending ? order.reversed() : order;
+    }
+
+    private static boolean startsWith(String value, String prefix) {
+        return value != null && value.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static boolean inRange(Date value, Date from, Date to) {
+        return (from == null || !value.before(from)) && (to == null || value.before(to));
+    }
+
+    @Override
+    public String toString() {
+        return "BookingQuery[car=" + car + ", customer=" + customer + ", location=" + location
+                + ", pickup=" + pickupFrom + ".." + pickupTo + ", drop=" + dropFrom + ".." + dropTo
+                + ", sort=" + sort + (descending ? " desc" : "") + "]";
+    }
+
+    public static final class Builder {
+        private String car;
+        private String customer;
+        private String location;
+        private Date pickupFrom;
+        private Date pickupTo;
+        private Date dropFrom;
+        private Date dropTo;
+        private Sort sort = Sort.ID;
+        private boolean descending;
+
+        private Builder() {
+        }
+
+        public Builder car(String car) {
+            this.car = blankToNull(car);
+            return this;
+        }
+
+        public Builder customer(String prefix) {
+            this.customer = blankToNull(prefix);
+            return this;
+        }
+
+        public Builder location(String prefix) {
+            this.location = blankToNull(prefix);
+            return this;
+        }
+
+        public Builder pickupBetween(Date from, Date to) {
+            this.pickupFrom = from;
+            this.pickupTo = to;
+            return this;
+        }
+
+        public Builder dropBetween(Date from, Date to) {
+            this.dropFrom = from;
+            this.dropTo = to;
+            return this;
+        }
+
+        public Builder sortBy(Sort sort, boolean descending) {
+            if (sort == null) {
+                throw new IllegalArgumentException("Sort column is required");
+            }
+            this.sort = sort;
+            this.descending = descending;
+            return this;
+        }
+
+        public BookingQuery build() {
+            return new BookingQuery(this);
+        }
+
+        private static String blankToNull(String s) {
+            return s == null || s.trim().isEmpty() ? null : s.trim();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+// BookingRepository.java
+package carrental;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.Vector;
+import java.util.function.Consumer;
+
+/**
+ * Storage for bookings. Implemented by BookingDAO (MySQL) and
+ * InMemoryBookingRepository. Bookings are always ordered by id.
+ */
+public interface BookingRepository {
+
+    // Every booking as table rows (see BookingDAO.COLUMN_NAMES)
+    Vector<Vector<Object>> loadAllBookings();
+
+    // Up to pageSize bookings with id greater than afterId
+    List<Booking> loadBookingsPage(int afterId, int pageSize) throws SQLException;
+
+    // Up to limit bookings starting at row offset
+    List<Booking> loadBookingsAt(int offset, int limit) throws SQLException;
+
+    int countBookings() throws SQLException;
+
+    // Number of bookings matching the query
+    int countBookings(BookingQuery query) throws SQLException;
+
+    // Up to limit matching bookings starting at row offset, in the query's order
+    List<Booking> findBookings(BookingQuery query, int offset, int limit) throws SQLException;
+
+    /**
+     * Keyset page: up to limit matching bookings that come after the given
+     * one in the query's order. Only for queries where supportsKeyset() is true.
+     */
+    List<Booking> findBookingsAfter(BookingQuery query, Booking last, int limit) throws SQLException;
+
+    // Streams every booking to the handler without holding them all
+    void forEachBooking(Consumer<Booking> handler) throws SQLException;
+
+    // Streams the bookings picked up in [from, to), ordered by pickup date
+    void forEachBookingPickedUpBetween(Date from, Date to, Consumer<Booking> handler) throws SQLException;
+
+    // Saves the booking and returns its generated id
+    int insertBooking(Booking booking) throws SQLException;
+
+    boolean deleteBooking(int bookingId);
+
+    // Token for the current state; read it before a full load
+    long changeToken() throws SQLException;
+
+    // Bookings inserted, updated or deleted (by id) since the token; apply deletions first
+    ChangeSet<Booking> changesSince(long token) throws SQLException;
+}
@@ -0,0 +1,261 @@
+// BookingService.java
+package carrental;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BookingService - books a car and records its payment, safe against other
+ * counters (and other instances) booking the same car at the same time.
+ *
+ * Every attempt reads the car's current daily rent and version, checks the
+ * window against the bookings table and prices it at that rent. Then, in
+ * one transaction, it claims the car with
+ *
+ *   UPDATE available_cars SET version = version + 1 WHERE model = ? AND version = ?
+ *
+ * and inserts the booking and payment. If the version moved since it was
+ * read, another booking or a price change got there first: the attempt is
+ * rolled back and retried from the reads, up to booking.maxRetries (default
+ * 5) times with a short random backoff. Only the car's row is locked, and
+ * only while the claiming transaction runs, so bookings of different cars
+ * never wait on each other.
+ *
+ * Bookings saved any other way (BookingDAO.insertBooking, the CSV import)
+ * do not claim the car and are not checked.
+ *
+ * The price the customer was shown (Booking.getPrice) must match the
+ * current one; if the rent changed meanwhile the booking is refused with a
+ * PriceChangedException carrying the new quote, never charged silently.
+ *
+ * On the in-memory backend bookings of one car are serialized with a lock
+ * instead; that backend only ever has one process.
+ *
+ * Safe to use from any thread; nothing here touches Swing.
+ */
+public final class BookingService {
+
+    private static final BookingService INSTANCE = new BookingService(Integer.getInteger("booking.maxRetries", 5));
+
+    private static final DaoMetrics.Operation BOOK = DaoMetrics.operation("BookingService", "book");
+
+    private final int maxRetries;
+    private final LongAdder retries = new LongAdder();
+    private final Map<String, Object> memoryLocks = new ConcurrentHashMap<>();
+
+    BookingService(int maxRetries) {
+        this.maxRetries = Math.max(0, maxRetries);
+    }
+
+    public static BookingService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Validates, prices and saves the booking together with its payment.
+     * @return the generated booking id
+     * @throws IllegalArgumentException if the booking is incomplete or its window is empty
+     * @throws AvailabilityIndex.ConflictException if the car is booked in that window or no longer exists
+     * @throws PriceChangedException if the car's rent is not what the customer was quoted
+     * @throws SQLException on database errors, or if the car stayed contended through every retry
+     */
+    public int book(Booking booking, Payment payment)
+            throws SQLException, AvailabilityIndex.ConflictException, PriceChangedException {
+        validate(booking);
+        long start = System.nanoTime();
+        try {
+            int bookingId = Repositories.backend() == Repositories.Backend.MEMORY
+                    ? bookInMemory(booking, payment)
+                    : bookWithRetries(booking, payment);
+            BOOK.success(start, 1);
+            return bookingId;
+        } catch (SQLException | AvailabilityIndex.ConflictException | PriceChangedException | RuntimeException e) {
+            BOOK.failure(start, e);
+            throw e;
+        }
+    }
+
+    /** Attempts that lost the race for a car and were run again. */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    private static void validate(Booking b) {
+        if (b.getCar() == null || b.getCar().isEmpty()) {
+            throw new IllegalArgumentException("Please choose a car.");
+        }
+        if (isBlank(b.getName()) || isBlank(b.getEmail()) || isBlank(b.getPhone())) {
+            throw new IllegalArgumentException("Please fill name, email and phone.");
+        }
+        if (b.getPickup() == null || b.getDrop() == null || !b.getDrop().after(b.getPickup())) {
+            throw new IllegalArgumentException("Drop date must be after pickup date.");
+        }
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    private int bookWithRetries(Booking booking, Payment payment)
+            throws SQLException, AvailabilityIndex.ConflictException, PriceChangedException {
+        for (int attempt = 0; ; attempt++) {
+            Integer bookingId = tryBook(booking, payment);
+            if (bookingId != null) {
+                EventBus.getInstance().publish(BookingEvent.created(booking.withId(bookingId)));
+                return bookingId;
+            }
+            if (attempt >= maxRetries) {
+                throw new SQLException("Could not book " + booking.getCar() + ": it kept changing while we tried. "
+                        + "Please try again.");
+            }
+            retries.increment();
+            backOff(attempt);
+        }
+    }
+
+    // One optimistic attempt; null if the car's version moved under us
+    private Integer tryBook(Booking booking, Payment payment)
+            throws SQLException, AvailabilityIndex.ConflictException, PriceChangedException {
+        String car = booking.getCar();
+        try (Connection conn = DBUtil.getConnection()) {
+            int dailyRent;
+            int version;
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT daily_rent, version FROM available_cars WHERE model = ?")) {
+                ps.setString(1, car);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new AvailabilityIndex.ConflictException(car + " is no longer available.");
+                    }
+                    dailyRent = rs.getInt(1);
+                    version = rs.getInt(2);
+                }
+            }
+            // Read after the version: a booking committed in between has bumped it
+            if (overlaps(conn, booking)) {
+                throw new AvailabilityIndex.ConflictException(car + " is already booked between those dates.");
+            }
+            checkPrice(booking, dailyRent);
+
+            conn.setAutoCommit(false); // the pool restores autocommit when the connection goes back
+            try {
+                if (!claim(conn, car, version)) {
+                    conn.rollback();
+                    return null;
+                }
+                int bookingId = insertBooking(conn, booking);
+                PaymentDAO.insert(conn, bookingId, payment);
+                conn.commit();
+                return bookingId;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Served by idx_bookings_car_dates; windows are half-open, like AvailabilityIndex
+    private static boolean overlaps(Connection conn, Booking booking) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT 1 FROM bookings WHERE car = ? AND pickup_date < ? AND drop_date > ? LIMIT 1")) {
+            ps.setString(1, booking.getCar());
+            ps.setTimestamp(2, new Timestamp(booking.getDrop().getTime()));
+            ps.setTimestamp(3, new Timestamp(booking.getPickup().getTime()));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Takes the car's row lock until commit; false if someone else changed the car first
+    private static boolean claim(Connection conn, String car, int version) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE available_cars SET version = version + 1 WHERE model = ? AND version = ?")) {
+            ps.setString(1, car);
+            ps.setInt(2, version);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    private static int insertBooking(Connection conn, Booking booking) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(BookingDAO.INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            BookingDAO.bindInsert(ps, booking);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("Booking insert returned no generated id.");
+                }
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private int bookInMemory(Booking booking, Payment payment)
+            throws SQLException, AvailabilityIndex.ConflictException, PriceChangedException {
+        String car = booking.getCar();
+        synchronized (memoryLocks.computeIfAbsent(car, c -> new Object())) {
+            Integer dailyRent = Repositories.cars().loadAllCars().get(car);
+            if (dailyRent == null) {
+                throw new AvailabilityIndex.ConflictException(car + " is no longer available.");
+            }
+            // pickup < drop' and drop > pickup'; dropBetween's lower bound is inclusive
+            BookingQuery overlapping = BookingQuery.builder()
+                    .car(car)
+                    .pickupBetween(null, booking.getDrop())
+                    .dropBetween(new Date(booking.getPickup().getTime() + 1), null)
+                    .build();
+            if (Repositories.bookings().countBookings(overlapping) > 0) {
+                throw new AvailabilityIndex.ConflictException(car + " is already booked between those dates.");
+            }
+            checkPrice(booking, dailyRent);
+            int bookingId = Repositories.bookings().insertBooking(booking);
+            Repositories.payments().insertPayment(bookingId, payment);
+            return bookingId;
+        }
+    }
+
+    private static void checkPrice(Booking booking, int dailyRent) throws PriceChangedException {
+        PricingEngine.Quote current = PricingEngine.getInstance()
+                .quote(booking.getCar(), dailyRent, booking.getPickup(), booking.getDrop());
+        if (current.getTotal() != booking.getPrice()) {
+            throw new PriceChangedException(current, booking.getPrice());
+        }
+    }
+
+    // Random wait that grows with each lost race, so contenders spread out
+    private static void backOff(int attempt) throws SQLException {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1L << Math.min(attempt + 1, 6)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while retrying the booking.", e);
+        }
+    }
+
+    /**
+     * The car's rent changed after the customer was quoted.
+     */
+    public static final class PriceChangedException extends Exception {
+        private final transient PricingEngine.Quote quote;
+
+        public PriceChangedException(PricingEngine.Quote quote, int quotedTotal) {
+            super("The price of " + quote.getCar() + " has changed from $" + quotedTotal + " to $"
+                    + quote.getTotal() + ".");
+            this.quote = quote;
+        }
+
+        // The current price
+        public PricingEngine.Quote getQuote() {
+            return quote;
+        }
+    }
+}
@@ -0,0 +1,458 @@
+// BookingTableModel.java
+package carrental;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * BookingTableModel - virtual table model for the "View Bookings" tab.
+ *
+ * Only the row count is known up front. Rows are fetched a page at a time
+ * when the JTable asks for them (i.e. when they scroll into view), the next
+ * page is read ahead, and at most maxCachedPages pages are kept (LRU), so
+ * memory stays flat however many bookings there are.
+ *
+ * Rows are whatever the current BookingQuery matches, in its order; see
+ * setQuery. The filtering and sorting happen in the database.
+ *
+ * refreshChanges() fetches only what changed since the last load (see
+ * ChangeSet) and patches cached rows with row-level events. Changes whose
+ * position cannot be worked out locally (say, a row deleted on a page that
+ * is not cached) fall back to a full refresh().
+ *
+ * All state is touched on the EDT; database reads run on a loader thread.
+ */
+public class BookingTableModel extends AbstractTableModel {
+
+    private static final String LOADING = "Loading...";
+
+    private final BookingRepository bookings;
+    private final int pageSize;
+
+    private final LinkedHashMap<Integer, Page> pages;
+    private final Set<Integer> pagesInFlight = new HashSet<>();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "booking-page-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private BookingQuery query = BookingQuery.ALL;
+    private int rowCount = 0;
+    // Bumped on refresh so pages fetched before it are dropped
+    private int generation = 0;
+
+    // Change tracking; changeToken is -1 until the first full load lands
+    private long changeToken = -1;
+    private boolean fullRefreshPending = false;
+    // Largest id matching the query at the last full load, raised as rows are appended
+    private int lastId = 0;
+    // Applied already; the change log delivers changes more than once. Deleted ids
+    // never come back, so those are kept across full loads (up to a limit)
+    private final Set<Integer> appendedIds = new HashSet<>();
+    private final Set<Integer> deletedIds = new HashSet<>();
+    private static final int MAX_DELETED_IDS = 10_000;
+    // Contents of changed rows the table already reflects, by id: applied since
+    // the last full load, or part of the changes that load was started for.
+    // The overlap window sends them again, and those must not force a reload
+    private final Map<Integer, Vector<Object>> reflectedRows = new HashMap<>();
+    private static final int MAX_REFLECTED_ROWS = 10_000;
+
+    public BookingTableModel(BookingRepository bookings, int pageSize, int maxCachedPages) {
+        this.bookings = bookings;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<Integer, Page>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    public BookingTableModel(BookingRepository bookings) {
+        this(bookings, 200, 20);
+    }
+
+    public BookingQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Shows the bookings matching the query, in its order, and reloads.
+     */
+    public void setQuery(BookingQuery query) {
+        boolean resorted = query.getSort() != this.query.getSort()
+                || query.isDescending() != this.query.isDescending();
+        this.query = query;
+        refresh();
+        if (resorted) {
+            fireTableStructureChanged(); // header arrows move
+        }
+    }
+
+    /**
+     * Re-counts the bookings and drops every cached page. Rows are fetched
+     * again as they become visible.
+     */
+    public void refresh() {
+        refresh(Collections.emptyMap());
+    }
+
+    // reflected: changed rows the reload is known to include
+    private void refresh(Map<Integer, Vector<Object>> reflected) {
+        if (loader.isShutdown()) {
+            return; // closed
+        }
+        int gen = ++generation;
+        fullRefreshPending = true;
+        BookingQuery q = query;
+        BookingQuery newestFirst = q.toBuilder().sortBy(BookingQuery.Sort.ID, true).build();
+        loader.execute(() -> {
+            try {
+                // Token first, so anything that changes while we count is delivered again later
+                long token = bookings.changeToken();
+                int count = q.isUnfiltered() ? bookings.countBookings() : bookings.countBookings(q);
+                List<Booking> newest = bookings.findBookings(newestFirst, 0, 1);
+                int maxId = newest.isEmpty() ? 0 : newest.get(0).getId();
+                SwingUtilities.invokeLater(() -> {
+                    if (gen != generation) {
+                        return;
+                    }
+                    fullRefreshPending = false;
+                    changeToken = token;
+                    lastId = maxId;
+                    appendedIds.clear();
+                    reflectedRows.clear();
+                    reflectedRows.putAll(reflected);
+                    if (deletedIds.size() > MAX_DELETED_IDS) {
+                        deletedIds.clear();
+                    }
+                    pages.clear();
+                    pagesInFlight.clear();
+                    rowCount = count;
+                    fireTableDataChanged();
+                });
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Fetches the bookings changed since the last load and applies them as
+     * row updates, inserts and deletes. Cheap when nothing changed, so it
+     * can be called on a timer.
+     */
+    public void refreshChanges() {
+        if (fullRefreshPending || loader.isShutdown()) {
+            return; // about to reload everything anyway
+        }
+        if (changeToken < 0) {
+            refresh();
+            return;
+        }
+        int gen = generation;
+        long token = changeToken;
+        loader.execute(() -> {
+            try {
+                ChangeSet<Booking> changes = bookings.changesSince(token);
+                SwingUtilities.invokeLater(() -> {
+                    if (gen == generation && !fullRefreshPending) {
+                        applyChanges(changes);
+                    }
+                });
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private void applyChanges(ChangeSet<Booking> changes) {
+        if (changes.isReset()) {
+            refresh();
+            return;
+        }
+        changeToken = changes.getToken();
+        if (changes.isEmpty()) {
+            return;
+        }
+        boolean byId = query.getSort() == BookingQuery.Sort.ID;
+        Map<Integer, Integer> cachedRows = cachedRowsById();
+
+        List<Integer> deletedRows = new ArrayList<>();
+        for (String key : changes.getDeleted()) {
+            int id = Integer.parseInt(key);
+            Integer row = cachedRows.get(id);
+            if (row != null) {
+                deletedRows.add(row);
+            } else if (!deletedIds.contains(id) && (id <= lastId || appendedIds.contains(id))) {
+                fallBack(changes); // was in the table, on a page we do not have
+                return;
+            }
+        }
+
+        Map<Integer, Booking> updatedRows = new LinkedHashMap<>();
+        List<Booking> appended = new ArrayList<>();
+        for (Booking b : changes.getChanged()) {
+            Integer row = cachedRows.get(b.getId());
+            boolean matches = query.matches(b);
+            if (row == null && BookingDAO.toRow(b).equals(reflectedRows.get(b.getId()))) {
+                continue; // sent again by the overlap window; nothing new
+            }
+            if (row != null) {
+                Booking old = bookingAt(row);
+                // Still in the same place only if it still matches and its sort key is unchanged
+                if (!matches || (!byId && query.comparator().compare(old, b) != 0)) {
+                    fallBack(changes);
+                    return;
+                }
+                if (!BookingDAO.toRow(b).equals(rowAt(row))) {
+                    updatedRows.put(row, b);
+                }
+            } else if (appendedIds.contains(b.getId())) {
+                if (!matches) {
+                    fallBack(changes);
+                    return;
+                }
+            } else if (b.getId() > lastId) {
+                if (matches) {
+                    if (!byId) {
+                        fallBack(changes); // new row somewhere in the middle
+                        return;
+                    }
+                    appended.add(b);
+                }
+            } else if (!(byId && query.isUnfiltered())) {
+                fallBack(changes); // an uncached row may have moved, or entered or left the filter
+                return;
+            }
+        }
+
+        rememberDeleted(changes);
+        rememberReflected(changes);
+        if (updatedRows.isEmpty() && deletedRows.isEmpty() && appended.isEmpty()) {
+            return; // only changes we have already applied
+        }
+
+        // From here on positions are known; drop pages that are still loading
+        generation++;
+        pagesInFlight.clear();
+
+        for (Map.Entry<Integer, Booking> e : updatedRows.entrySet()) {
+            int row = e.getKey();
+            Page page = pages.get(row / pageSize);
+            page.rows.set(row % pageSize, BookingDAO.toRow(e.getValue()));
+            page.bookings.set(row % pageSize, e.getValue());
+            fireTableRowsUpdated(row, row);
+        }
+
+        if (!deletedRows.isEmpty()) {
+            deletedRows.sort(Collections.reverseOrder());
+            // Rows after the first deleted one shift up; their pages are fetched again
+            int firstPage = deletedRows.get(deletedRows.size() - 1) / pageSize;
+            pages.keySet().removeIf(index -> index >= firstPage);
+            for (int row : deletedRows) {
+                rowCount--;
+                fireTableRowsDeleted(row, row);
+            }
+        }
+
+        if (!appended.isEmpty()) {
+            appended.sort(Comparator.comparingInt(Booking::getId));
+            for (Booking b : appended) {
+                appendedIds.add(b.getId());
+                lastId = Math.max(lastId, b.getId());
+            }
+            int count = appended.size();
+            if (query.isDescending()) {
+                // Newest first: everything moves down
+                pages.clear();
+                rowCount += count;
+                fireTableRowsInserted(0, count - 1);
+            } else {
+                pages.remove(rowCount / pageSize); // the partial last page gains rows
+                int first = rowCount;
+                rowCount += count;
+                fireTableRowsInserted(first, rowCount - 1);
+            }
+        }
+    }
+
+    // Changes that cannot be placed locally: reload, which reflects all of them
+    private void fallBack(ChangeSet<Booking> changes) {
+        rememberDeleted(changes);
+        Map<Integer, Vector<Object>> reflected = new HashMap<>();
+        for (Booking b : changes.getChanged()) {
+            reflected.put(b.getId(), BookingDAO.toRow(b));
+        }
+        refresh(reflected);
+    }
+
+    private void rememberReflected(ChangeSet<Booking> changes) {
+        if (reflectedRows.size() > MAX_REFLECTED_ROWS) {
+            reflectedRows.clear(); // at worst one needless reload later
+        }
+        for (Booking b : changes.getChanged()) {
+            reflectedRows.put(b.getId(), BookingDAO.toRow(b));
+        }
+    }
+
+    private void rememberDeleted(ChangeSet<Booking> changes) {
+        for (String key : changes.getDeleted()) {
+            deletedIds.add(Integer.parseInt(key));
+        }
+    }
+
+    // Row index of every cached booking
+    private Map<Integer, Integer> cachedRowsById() {
+        Map<Integer, Integer> rows = new HashMap<>();
+        for (Map.Entry<Integer, Page> e : pages.entrySet()) {
+            List<Booking> page = e.getValue().bookings;
+            for (int i = 0; i < page.size(); i++) {
+                rows.put(page.get(i).getId(), e.getKey() * pageSize + i);
+            }
+        }
+        return rows;
+    }
+
+    // Only for rows known to be cached
+    private Booking bookingAt(int row) {
+        return pages.get(row / pageSize).bookings.get(row % pageSize);
+    }
+
+    private Vector<Object> rowAt(int row) {
+        return pages.get(row / pageSize).rows.get(row % pageSize);
+    }
+
+    /**
+     * Stops the loader thread and drops the cached pages. Call when the
+     * table goes away; the model loads nothing after this.
+     */
+    public void close() {
+        loader.shutdownNow();
+        generation++; // pages still on their way are dropped
+        pages.clear();
+        pagesInFlight.clear();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return BookingDAO.COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        String name = BookingDAO.COLUMN_NAMES[column];
+        if (query.getSort().getColumnIndex() != column) {
+            return name;
+        }
+        return name + (query.isDescending() ? " \u25BC" : " \u25B2");
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / pageSize;
+        Page page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return column == 1 ? LOADING : null;
+        }
+        // Read ahead so scrolling down rarely waits on the database
+        if (!pages.containsKey(pageIndex + 1) && (pageIndex + 1) * pageSize < rowCount) {
+            requestPage(pageIndex + 1);
+        }
+        int offset = row % pageSize;
+        return offset < page.rows.size() ? page.rows.get(offset).get(column) : null;
+    }
+
+    /**
+     * Booking id of the given row, or -1 if that row has not been loaded yet.
+     */
+    public int getBookingIdAt(int row) {
+        Object id = getValueAt(row, 0);
+        return id instanceof Integer ? (Integer) id : -1;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (loader.isShutdown() || !pagesInFlight.add(pageIndex)) {
+            return;
+        }
+        int gen = generation;
+        BookingQuery q = query;
+        // If the previous page is cached we can continue from its last row (keyset),
+        // otherwise fall back to an offset query
+        Page previous = pages.get(pageIndex - 1);
+        Booking after = previous != null && previous.rows.size() == pageSize && q.supportsKeyset()
+                ? previous.bookings.get(pageSize - 1)
+                : null;
+
+        loader.execute(() -> {
+            List<Vector<Object>> rows = new ArrayList<>(pageSize);
+            List<Booking> page = Collections.emptyList();
+            boolean loaded;
+            try {
+                page = after != null
+                        ? bookings.findBookingsAfter(q, after, pageSize)
+                        : bookings.findBookings(q, pageIndex * pageSize, pageSize);
+                for (Booking b : page) {
+                    rows.add(BookingDAO.toRow(b));
+                }
+                loaded = true;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                loaded = false;
+            }
+            boolean success = loaded;
+            List<Booking> pageBookings = new ArrayList<>(page);
+            SwingUtilities.invokeLater(() -> {
+                if (gen != generation) {
+                    return;
+                }
+                pagesInFlight.remove(pageIndex);
+                if (!success) {
+                    return; // not cached, so the page is retried next time it is painted
+                }
+                pages.put(pageIndex, new Page(rows, pageBookings));
+                int first = pageIndex * pageSize;
+                int last = Math.min(first + pageSize, rowCount) - 1;
+                if (last >= first) {
+                    fireTableRowsUpdated(first, last);
+                }
+            });
+        });
+    }
+
+    // One cached page: its table rows and the bookings behind them (for keyset paging and deltas)
+    private static final class Page {
+        final List<Vector<Object>> rows;
+        final List<Booking> bookings;
+
+        Page(List<Vector<Object>> rows, List<Booking> bookings) {
+            this.rows = rows;
+            this.bookings = bookings;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+// CarCatalog.java
+package carrental;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CarCatalog - process-wide cache of the available_cars table (model -> daily rent).
+ *
+ * Readers get an immutable snapshot without taking any lock. Writers either
+ * patch the snapshot (copy-on-write, swapped atomically) or invalidate it so
+ * the next read reloads from the database.
+ */
+public final class CarCatalog {
+
+    private static final CarCatalog INSTANCE = new CarCatalog();
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Bumped on every change so a slow reload cannot overwrite a newer patch
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private CarCatalog() {
+    }
+
+    public static CarCatalog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached snapshot, loading it with the given loader on a miss.
+     */
+    public Snapshot get(Loader loader) throws SQLException {
+        Snapshot snap = current.get();
+        if (snap != null) {
+            hits.increment();
+            return snap;
+        }
+        synchronized (this) {
+            snap = current.get();
+            if (snap != null) {
+                hits.increment();
+                return snap;
+            }
+            misses.increment();
+            long gen = generation.get();
+            Snapshot loaded = new Snapshot(sorted(loader.load()), gen);
+            // Only publish if nothing changed while we were reading
+            if (generation.get() == gen) {
+                current.compareAndSet(null, loaded);
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Cached snapshot, or null if the catalog has not been loaded yet.
+     */
+    public Snapshot peek() {
+        return current.get();
+    }
+
+    // Adds or re-prices a model in the cached snapshot
+    public void put(String model, int dailyRent) {
+        long gen = generation.incrementAndGet();
+        current.updateAndGet(snap -> {
+            if (snap == null) {
+                return null;
+            }
+            Map<String, Integer> copy = new LinkedHashMap<>(snap.prices);
+            copy.put(model, dailyRent);
+            return new Snapshot(sorted(copy), gen);
+        });
+    }
+
+    // Removes a model from the cached snapshot
+    public void remove(String model) {
+        long gen = generation.incrementAndGet();
+        current.updateAndGet(snap -> {
+            if (snap == null || !snap.prices.containsKey(model)) {
+                return snap;
+            }
+            Map<String, Integer> copy = new LinkedHashMap<>(snap.prices);
+            copy.remove(model);
+            return new Snapshot(Collections.unmodifiableMap(copy), gen);
+        });
+    }
+
+    /**
+     * Drops the cached snapshot; the next read goes to the database.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        current.set(null);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Same order as "ORDER BY model ASC" under MySQL's default collation
+    private static Map<String, Integer> sorted(Map<String, Integer> prices) {
+        Map<String, Integer> byModel = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        byModel.putAll(prices);
+        return Collections.unmodifiableMap(new LinkedHashMap<>(byModel));
+    }
+
+    /**
+     * Reads the full catalog from the database.
+     */
+    public interface Loader {
+        Map<String, Integer> load() throws SQLException;
+    }
+
+    /**
+     * Immutable view of the catalog at one point in time.
+     */
+    public static final class Snapshot {
+        public final Map<String, Integer> prices;
+        public final long version;
+
+        Snapshot(Map<String, Integer> prices, long version) {
+            this.prices = prices;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+// CarDAO.java
+package carrental;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CarDAO implements CarRepository {
+
+    private static final String TABLE_NAME = "available_cars";
+
+    // Shared by every CarDAO instance so the table is read once per process
+    private static final CarCatalog CATALOG = CarCatalog.getInstance();
+
+    private static final DaoMetrics.Operation LOAD_ALL = DaoMetrics.operation("CarDAO", "loadAllCars");
+    private static final DaoMetrics.Operation ADD = DaoMetrics.operation("CarDAO", "addCar");
+    private static final DaoMetrics.Operation UPDATE_PRICE = DaoMetrics.operation("CarDAO", "updateCarPrice");
+    private static final DaoMetrics.Operation DELETE = DaoMetrics.operation("CarDAO", "deleteCar");
+    private static final DaoMetrics.Operation CHANGES = DaoMetrics.operation("CarDAO", "changesSince");
+
+    public CarDAO() {
+        initializeDatabase();
+    }
+
+    // Ensures the schema (including the default cars) is in place.
+    // SchemaMigrator only does real work the first time per process.
+    public void initializeDatabase() {
+        try {
+            SchemaMigrator.migrate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Returns all available cars, ordered by model. Served from the shared
+     * CarCatalog; only the first call (or the first after invalidation) hits
+     * the database. The returned map is read-only.
+     */
+    public Map<String, Integer> loadAllCars() {
+        try {
+            return CATALOG.get(this::queryAllCars).prices;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return Collections.emptyMap();
+        }
+    }
+
+    // Loads all available cars from the database (catalog misses only, so
+    // that is what the loadAllCars metrics count)
+    private Map<String, Integer> queryAllCars() throws SQLException {
+        Map<String, Integer> carList = new LinkedHashMap<>();
+        // Note: The Admin page seems to order alphabetically by model, so we use ASC here.
+        String sql = "SELECT model, daily_rent FROM " + TABLE_NAME + " ORDER BY model ASC"; 
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                carList.put(rs.getString("model"), rs.getInt("daily_rent"));
+            }
+        } catch (SQLException e) {
+            LOAD_ALL.failure(start, e);
+            throw e;
+        }
+        LOAD_ALL.success(start, carList.size());
+        return carList;
+    }
+
+    // Adds a new car record
+    public boolean addCar(String model, int dailyRent) {
+        String sql = "INSERT INTO " + TABLE_NAME + " (model, daily_rent) VALUES (?, ?)";
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, model);
+            ps.setInt(2, dailyRent);
+            ps.executeUpdate();
+            ADD.success(start, 1);
+            CATALOG.put(model, dailyRent);
+            EventBus.getInstance().publish(CarEvent.added(model, dailyRent));
+            return true;
+        } catch (SQLException e) {
+            // Usually a unique constraint violation (car already exists)
+            ADD.failure(start, e);
+            return false; 
+        }
+    }
+
+    /**
+     * Executes the SQL UPDATE command to change the daily_rent price.
+     */
+    public boolean updateCarPrice(String model, int newDailyRent) {
+        // The version bump sends checkouts that read the old rent back to re-price (see BookingService)
+        String sql = "UPDATE " + TABLE_NAME + " SET daily_rent = ?, version = version + 1 WHERE model = ?";
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, newDailyRent);
+            ps.setString(2, model);
+            int updated = ps.executeUpdate();
+            UPDATE_PRICE.success(start, updated);
+            if (updated > 0) { // Returns true if one or more rows were updated
+                CATALOG.put(model, newDailyRent);
+                EventBus.getInstance().publish(CarEvent.repriced(model, newDailyRent));
+                return true;
+            }
+            return false;
+        } catch (SQLException e) {
+            UPDATE_PRICE.failure(start, e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Deletes a car record, leaving a tombstone for incremental refreshes
+    public boolean deleteCar(String model) {
+        String sql = "DELETE FROM " + TABLE_NAME + " WHERE model = ?";
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false); // the pool restores autocommit when the connection goes back
+            ps.setString(1, model);
+            if (ps.executeUpdate() == 0) {
+                conn.rollback();
+                DELETE.success(start, 0);
+                return false;
+            }
+            ChangeLog.recordDelete(conn, TABLE_NAME, model);
+            conn.commit();
+            DELETE.success(start, 1);
+            CATALOG.remove(model);
+            EventBus.getInstance().publish(CarEvent.removed(model));
+            return true;
+        } catch (SQLException e) {
+            DELETE.failure(start, e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public long changeToken() throws SQLException {
+        return ChangeLog.now();
+    }
+
+    /**
+     * Cars changed since the token, read through idx_cars_updated. Changes
+     * made by other processes are patched into the shared CarCatalog too,
+     * and published as CarEvents.
+     */
+    public ChangeSet<Map.Entry<String, Integer>> changesSince(long token) throws SQLException {
+        String sql = "SELECT model, daily_rent FROM " + TABLE_NAME + " WHERE updated_at >= ?";
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection()) {
+            long now = ChangeLog.now(conn);
+            if (ChangeLog.tooOld(token, now)) {
+                CHANGES.success(start, 0);
+                return ChangeSet.reset(now);
+            }
+            List<Map.Entry<String, Integer>> changed = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setTimestamp(1, ChangeLog.since(token));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        changed.add(new AbstractMap.SimpleImmutableEntry<>(rs.getString(1), rs.getInt(2)));
+                    }
+                }
+            }
+            List<String> deleted = ChangeLog.deletedSince(conn, TABLE_NAME, token);
+            CHANGES.success(start, changed.size() + deleted.size());
+
+            CarCatalog.Snapshot cached = CATALOG.peek();
+            if (cached != null) {
+                EventBus bus = EventBus.getInstance();
+                for (String model : deleted) {
+                    if (cached.prices.containsKey(model)) {
+                        CATALOG.remove(model);
+                        bus.publish(CarEvent.removed(model));
+                    }
+                }
+                for (Map.Entry<String, Integer> car : changed) {
+                    // Rows in the overlap window come back every time; only patch real changes
+                    Integer before = cached.prices.get(car.getKey());
+                    if (!car.getValue().equals(before)) {
+                        CATALOG.put(car.getKey(), car.getValue());
+                        bus.publish(before == null
+                                ? CarEvent.added(car.getKey(), car.getValue())
+                                : CarEvent.repriced(car.getKey(), car.getValue()));
+                    }
+                }
+            }
+            return new ChangeSet<>(changed, deleted, now, false);
+        } catch (SQLException e) {
+            CHANGES.failure(start, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+// CarEvent.java
+package carrental;
+
+/**
+ * CarEvent - a car was added to, re-priced in or removed from the fleet,
+ * or a batch of cars was imported.
+ * Published on the EventBus once the change is saved.
+ */
+public final class CarEvent {
+
+    public enum Kind { ADDED, REPRICED, REMOVED, IMPORTED }
+
+    private final Kind kind;
+    private final String model;
+    private final int dailyRent;
+    private final int count;
+
+    private CarEvent(Kind kind, String model, int dailyRent, int count) {
+        this.kind = kind;
+        this.model = model;
+        this.dailyRent = dailyRent;
+        this.count = count;
+    }
+
+    private CarEvent(Kind kind, String model, int dailyRent) {
+        this(kind, model, dailyRent, 1);
+    }
+
+    public static CarEvent added(String model, int dailyRent) {
+        return new CarEvent(Kind.ADDED, model, dailyRent);
+    }
+
+    public static CarEvent repriced(String model, int dailyRent) {
+        return new CarEvent(Kind.REPRICED, model, dailyRent);
+    }
+
+    public static CarEvent removed(String model) {
+        return new CarEvent(Kind.REMOVED, model, 0);
+    }
+
+    // Cars added in bulk; reload the fleet rather than expect one event per car
+    public static CarEvent imported(int count) {
+        return new CarEvent(Kind.IMPORTED, null, 0, count);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // null for IMPORTED
+    public String getModel() {
+        return model;
+    }
+
+    // New daily rent; 0 for REMOVED and IMPORTED
+    public int getDailyRent() {
+        return dailyRent;
+    }
+
+    // Cars the event covers: the number imported for IMPORTED, otherwise 1
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        if (kind == Kind.IMPORTED) {
+            return "CarEvent[IMPORTED " + count + " cars]";
+        }
+        return "CarEvent[" + kind + " " + model + (kind == Kind.REMOVED ? "" : " $" + dailyRent) + "]";
+    }
+}
@@ -1,13 +1,21 @@
+package carrental;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class CarRentalUI extends JFrame {
 
     // Global components and state
     private boolean isLoggedIn = false;
     private boolean isAdminLoggedIn = false; // NEW state for admin
+    private SessionCache.Session session; // logged-in user, null when logged out
     private JButton bookNow;
     private JButton logInActionBtn, signUpActionBtn, adminLoginActionBtn; // NEW: adminLoginActionBtn
     private JButton logoutLink; // Button in the navigation bar
@@ -15,9 +23,14 @@ public class CarRentalUI extends JFrame {
     private JPanel mainContentCardPanel;
     private CardLayout cardLayout;
     private static final int FORM_PADDING = 100;
+
+    // Cards other than WELCOME are built on first showView unless -Dcarrental.eagerCards=true
+    private static final boolean EAGER_CARDS = Boolean.getBoolean("carrental.eagerCards");
+    private final Map<String, Supplier<JPanel>> pendingCards = new HashMap<>();
     
     // REPLACED: use database instead of in-memory map
-    private final UserDAO userDAO = new UserDAO();
+    // Calls run off the EDT; results come back through UiTask
+    private final AsyncDAO asyncDAO = AsyncDAO.getInstance();
     
     // Hardcoded Admin Credentials
     private static final String ADMIN_USERNAME = "admin";
@@ -73,13 +86,8 @@ public class CarRentalUI extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                ImageIcon bg = new ImageIcon("ddd.jpeg"); // Assuming ddd.jpeg is the correct path
-                if (bg.getImageLoadStatus() != MediaTracker.COMPLETE) {
-                    g.setColor(new Color(30, 30, 30)); 
-                    g.fillRect(0, 0, getWidth(), getHeight());
-                } else {
-                    g.drawImage(bg.getImage(), 0, 0, getWidth(), getHeight(), this);
-                }
+                // Dark fill until ddd.jpeg has loaded (or if it is missing)
+                ImageAssets.paintBackground(g, this, ImageAssets.LOGIN_BACKGROUND, new Color(30, 30, 30));
             }
         };
         mainPanel.setLayout(new BorderLayout());
@@ -89,9 +97,14 @@ public class CarRentalUI extends JFrame {
         mainContentCardPanel.setOpaque(false);
 
         mainContentCardPanel.add(createWelcomePanel(), "WELCOME");
-        mainContentCardPanel.add(createLoginForm(), "LOGIN");
-        mainContentCardPanel.add(createSignupForm(), "SIGNUP");
-        mainContentCardPanel.add(createAdminLoginForm(), "ADMIN_LOGIN"); // NEW: Admin Login View
+        pendingCards.put("LOGIN", this::createLoginForm);
+        pendingCards.put("SIGNUP", this::createSignupForm);
+        pendingCards.put("ADMIN_LOGIN", this::createAdminLoginForm); // NEW: Admin Login View
+        if (EAGER_CARDS) {
+            for (String view : new String[] {"LOGIN", "SIGNUP", "ADMIN_LOGIN"}) {
+                mainContentCardPanel.add(pendingCards.remove(view).get(), view);
+            }
+        }
         
         JPanel contentWrapper = new JPanel(new GridBagLayout());
         contentWrapper.setOpaque(false);
@@ -145,6 +158,13 @@ public class CarRentalUI extends JFrame {
         bookNow.addActionListener(e -> {
              if (isAdminLoggedIn) {
                  JOptionPane.showMessageDialog(this, "Admin must log out to book a car.", "Admin Mode", JOptionPane.WARNING_MESSAGE);
+             } else if (!SessionCache.getInstance().isActive(session)) {
+                 // Checked in memory; the users table is not touched
+                 session = null;
+                 isLoggedIn = false;
+                 JOptionPane.showMessageDialog(this, "Your session has expired. Please log in again.", "Session Expired", JOptionPane.WARNING_MESSAGE);
+                 updateButtonVisibility();
+                 showView("LOGIN");
              } else {
                  new BookingPage(); 
                  // dispose(); // Keep CarRentalUI open after opening BookingPage
@@ -327,6 +347,11 @@ public class CarRentalUI extends JFrame {
     }
     
     private void showView(String viewName) {
+        Supplier<JPanel> pending = pendingCards.remove(viewName);
+        if (pending != null) {
+            mainContentCardPanel.add(pending.get(), viewName);
+            mainContentCardPanel.revalidate();
+        }
         cardLayout.show(mainContentCardPanel, viewName);
     }
 
@@ -352,15 +377,18 @@ public class CarRentalUI extends JFrame {
 
     private void loginUser(String username, String password) {
         // ... (existing loginUser logic)
-        if (userDAO.loginUser(username, password)) {
-            isLoggedIn = true;
-            isAdminLoggedIn = false;
-            JOptionPane.showMessageDialog(this, "Login Successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            updateButtonVisibility();
-            showView("WELCOME");
-        } else {
-            JOptionPane.showMessageDialog(this, "Invalid Username or Password", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        UiTask.run(this, "Logging in...", asyncDAO.login(username, password), newSession -> {
+            if (newSession != null) {
+                session = newSession;
+                isLoggedIn = true;
+                isAdminLoggedIn = false;
+                JOptionPane.showMessageDialog(this, "Login Successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                updateButtonVisibility();
+                showView("WELCOME");
+            } else {
+                JOptionPane.showMessageDialog(this, "Invalid Username or Password", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
     // NEW: Admin Login Logic
@@ -389,15 +417,19 @@ public class CarRentalUI extends JFrame {
             JOptionPane.showMessageDialog(this, "Passwords do not match.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        if (userDAO.registerUser(username, password)) {
-            JOptionPane.showMessageDialog(this, "Sign Up Successful! Please log in.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            showView("LOGIN");
-        } else {
-            JOptionPane.showMessageDialog(this, "Username already exists or DB error.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        UiTask.run(this, "Creating account...", asyncDAO.registerUser(username, password), ok -> {
+            if (ok) {
+                JOptionPane.showMessageDialog(this, "Sign Up Successful! Please log in.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                showView("LOGIN");
+            } else {
+                JOptionPane.showMessageDialog(this, "Username already exists or DB error.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     public void logoutUser() {
+        SessionCache.getInstance().close(session);
+        session = null;
         isLoggedIn = false;
         isAdminLoggedIn = false;
         JOptionPane.showMessageDialog(this, "You have been logged out.", "Logout", JOptionPane.INFORMATION_MESSAGE);
@@ -411,6 +443,18 @@ public class CarRentalUI extends JFrame {
     }
 
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(CarRentalUI::new);
+        Startup.mark("main");
+        // Connection, schema, car catalog and images load while the window opens
+        Startup.warmUp();
+        SwingUtilities.invokeLater(() -> {
+            CarRentalUI ui = new CarRentalUI();
+            Startup.mark("first frame built");
+            ui.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    Startup.mark("first frame shown");
+                }
+            });
+        });
     }
 }
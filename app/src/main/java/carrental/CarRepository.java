@@ -0,0 +1,27 @@
+// CarRepository.java
+package carrental;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Storage for the rentable fleet (car model -> daily rent).
+ * Implemented by CarDAO (MySQL) and InMemoryCarRepository.
+ */
+public interface CarRepository {
+
+    // All cars ordered by model; the returned map is read-only
+    Map<String, Integer> loadAllCars();
+
+    boolean addCar(String model, int dailyRent);
+
+    boolean updateCarPrice(String model, int newDailyRent);
+
+    boolean deleteCar(String model);
+
+    // Token for the current state; read it before a full load
+    long changeToken() throws SQLException;
+
+    // Cars added, re-priced or deleted (by model) since the token; apply deletions first
+    ChangeSet<Map.Entry<String, Integer>> changesSince(long token) throws SQLException;
+}
@@ -0,0 +1,108 @@
+// ChangeLog.java
+package carrental;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ChangeLog - change tracking for the JDBC repositories (schema V7).
+ *
+ * Inserts and updates are found through each table's updated_at column,
+ * which MySQL maintains itself. Deletes leave a tombstone in deleted_rows,
+ * written in the same transaction as the delete.
+ *
+ * Change tokens are database timestamps in epoch milliseconds. A reader
+ * asks for everything since (token - overlap) because a transaction that
+ * commits late can carry an updated_at older than rows already seen; the
+ * overlap (-Dcarrental.delta.overlapMs, default 5000) bounds how late.
+ * Tombstones are kept for -Dcarrental.delta.retentionHours (default 168).
+ */
+final class ChangeLog {
+
+    static final long OVERLAP_MS = Long.getLong("carrental.delta.overlapMs", 5000L);
+    private static final long RETENTION_MS = Long.getLong("carrental.delta.retentionHours", 168L) * 3_600_000L;
+    // Old tombstones are pruned by whoever deletes next, at most this often
+    private static final long PRUNE_INTERVAL_MS = 3_600_000L;
+
+    private static final AtomicLong lastPrune = new AtomicLong();
+
+    private ChangeLog() {
+    }
+
+    /**
+     * The database's clock, as a change token. Read it before a full load.
+     */
+    static long now(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT CURRENT_TIMESTAMP(3)")) {
+            rs.next();
+            return rs.getTimestamp(1).getTime();
+        }
+    }
+
+    static long now() throws SQLException {
+        try (Connection conn = DBUtil.getConnection()) {
+            return now(conn);
+        }
+    }
+
+    // Lower bound for "updated_at >= ?" when reading changes since token
+    static Timestamp since(long token) {
+        return new Timestamp(token - OVERLAP_MS);
+    }
+
+    // Tombstones may already be pruned for tokens older than the retention period
+    static boolean tooOld(long token, long now) {
+        return now - token > RETENTION_MS - OVERLAP_MS;
+    }
+
+    /**
+     * Records a delete. Call on the same connection (and transaction) as the DELETE.
+     */
+    static void recordDelete(Connection conn, String table, String key) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO deleted_rows (table_name, row_key) VALUES (?, ?)")) {
+            ps.setString(1, table);
+            ps.setString(2, key);
+            ps.executeUpdate();
+        }
+        pruneOccasionally(conn);
+    }
+
+    /**
+     * Keys deleted from the table since the token (with the overlap).
+     */
+    static List<String> deletedSince(Connection conn, String table, long token) throws SQLException {
+        List<String> keys = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT row_key FROM deleted_rows WHERE table_name = ? AND deleted_at >= ?")) {
+            ps.setString(1, table);
+            ps.setTimestamp(2, since(token));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    keys.add(rs.getString(1));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static void pruneOccasionally(Connection conn) throws SQLException {
+        long now = System.currentTimeMillis();
+        long last = lastPrune.get();
+        if (now - last < PRUNE_INTERVAL_MS || !lastPrune.compareAndSet(last, now)) {
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM deleted_rows WHERE deleted_at < ?")) {
+            ps.setTimestamp(1, new Timestamp(now(conn) - RETENTION_MS));
+            ps.executeUpdate();
+        }
+    }
+}
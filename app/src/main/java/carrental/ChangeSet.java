@@ -0,0 +1,59 @@
+// ChangeSet.java
+package carrental;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ChangeSet - rows changed since a change token, for incremental refreshes.
+ *
+ * A caller remembers getToken() and passes it to the next changesSince call.
+ * Changes may be delivered more than once (the JDBC backends re-read a short
+ * overlap window), so applying them must be idempotent. If isReset() is true
+ * the token was too old to answer from the tombstones that are still kept;
+ * the caller should reload everything.
+ *
+ * @param <T> the changed row type
+ */
+public final class ChangeSet<T> {
+
+    private final List<T> changed;
+    private final List<String> deleted;
+    private final long token;
+    private final boolean reset;
+
+    ChangeSet(List<T> changed, List<String> deleted, long token, boolean reset) {
+        this.changed = Collections.unmodifiableList(changed);
+        this.deleted = Collections.unmodifiableList(deleted);
+        this.token = token;
+        this.reset = reset;
+    }
+
+    // Caller must reload in full and start again from token
+    static <T> ChangeSet<T> reset(long token) {
+        return new ChangeSet<>(Collections.emptyList(), Collections.emptyList(), token, true);
+    }
+
+    /** Rows inserted or updated since the previous token. */
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    /** Keys of deleted rows: booking ids, or car models. */
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    /** Token to pass to the next changesSince call. */
+    public long getToken() {
+        return token;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public boolean isEmpty() {
+        return changed.isEmpty() && deleted.isEmpty() && !reset;
+    }
+}
@@ -0,0 +1,53 @@
+// CheckoutService.java
+package carrental;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CheckoutService - saves a booking and its payment together.
+ *
+ * The saving is done by BookingService: both rows in one transaction, after
+ * re-checking the car's availability and price against the database.
+ * Nothing is written before the customer pays; until then the car is only
+ * held in the AvailabilityIndex, which this turns into the saved booking.
+ */
+public final class CheckoutService {
+
+    private static final CheckoutService INSTANCE = new CheckoutService();
+
+    private CheckoutService() {
+    }
+
+    public static CheckoutService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Saves the booking and payment on a worker thread, then turns the hold
+     * (if any) into the saved booking. Completes with the booking id. On
+     * failure the hold is kept, so the customer can try paying again; a
+     * ConflictException or PriceChangedException means retrying will not help.
+     */
+    public CompletableFuture<Integer> checkoutAsync(Booking booking, Payment payment,
+                                                    AvailabilityIndex.Hold hold) {
+        return AsyncDAO.supply(() -> {
+            int bookingId = checkout(booking, payment);
+            if (hold != null) {
+                AvailabilityIndex.getInstance().confirm(hold, bookingId);
+            } else {
+                AvailabilityIndex.getInstance().add(bookingId, booking.getCar(), booking.getPickup(), booking.getDrop());
+            }
+            return bookingId;
+        });
+    }
+
+    /**
+     * Saves the booking and payment atomically (see BookingService.book).
+     * @return the generated booking id
+     */
+    public int checkout(Booking booking, Payment payment)
+            throws SQLException, AvailabilityIndex.ConflictException, BookingService.PriceChangedException {
+        return BookingService.getInstance().book(booking, payment);
+    }
+}
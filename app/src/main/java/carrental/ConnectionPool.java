@@ -0,0 +1,357 @@
+// ConnectionPool.java
+package carrental;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConnectionPool - keeps physical JDBC connections open between DAO calls.
+ *
+ * Callers get a proxy Connection; calling close() on it hands the physical
+ * connection back to the pool instead of closing the socket, so the usual
+ * try-with-resources blocks keep working unchanged.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final long validateAfterIdleMs;
+
+    // Idle connections, most recently returned first (keeps hot connections hot)
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    // One permit per connection that may be handed out
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    // Statistics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder borrowWaitNanos = new LongAdder();
+
+    public ConnectionPool(String url, String user, String password,
+                          int minSize, int maxSize, long idleTimeoutMs,
+                          long borrowTimeoutMs, long validateAfterIdleMs) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMs / 2, 30_000));
+        evictor.scheduleWithFixedDelay(this::evictAndFill, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout if the pool is exhausted.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLException("Timed out after " + borrowTimeoutMs
+                        + " ms waiting for a database connection (max pool size " + maxSize + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        borrowWaitNanos.add(System.nanoTime() - start);
+
+        try {
+            PooledEntry entry = takeValidIdle();
+            if (entry == null) {
+                entry = new PooledEntry(openPhysical());
+            }
+            borrowCount.increment();
+            return entry.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Pops idle connections until one passes validation (or none are left)
+    private PooledEntry takeValidIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            long idleFor = System.currentTimeMillis() - entry.lastReturned;
+            if (idleFor < validateAfterIdleMs || isValid(entry.physical)) {
+                return entry;
+            }
+            validationFailures.increment();
+            destroy(entry);
+        }
+        return null;
+    }
+
+    private boolean isValid(Connection conn) {
+        try {
+            return conn.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        createdCount.increment();
+        return conn;
+    }
+
+    private void destroy(PooledEntry entry) {
+        try {
+            entry.physical.close();
+        } catch (SQLException ignored) {
+            // Connection is being thrown away anyway
+        }
+        totalConnections.decrementAndGet();
+        destroyedCount.increment();
+    }
+
+    // Called from the proxy when the caller closes its connection
+    private void giveBack(PooledEntry entry, boolean broken) {
+        try {
+            if (broken || closed || entry.physical.isClosed()) {
+                destroy(entry);
+                return;
+            }
+            entry.reset();
+            entry.lastReturned = System.currentTimeMillis();
+            idle.offerFirst(entry);
+        } catch (SQLException e) {
+            destroy(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Closes connections idle past the timeout (down to minSize) and tops the pool up to minSize
+    private void evictAndFill() {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<PooledEntry> it = idle.descendingIterator(); // oldest first
+        while (it.hasNext() && totalConnections.get() > minSize) {
+            PooledEntry entry = it.next();
+            if (now - entry.lastReturned >= idleTimeoutMs && idle.remove(entry)) {
+                destroy(entry);
+            }
+        }
+        // Take a permit per new connection so filling never pushes the pool past maxSize
+        while (!closed && totalConnections.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledEntry entry = new PooledEntry(openPhysical());
+                entry.lastReturned = System.currentTimeMillis();
+                idle.offerLast(entry);
+            } catch (SQLException e) {
+                // Database not reachable yet; borrowers will see the real error
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Closes every idle connection and stops the evictor. Leased connections are
+     * closed when they are returned.
+     */
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    public Stats getStats() {
+        int idleCount = idle.size();
+        return new Stats(totalConnections.get(), idleCount, maxSize - permits.availablePermits(),
+                minSize, maxSize, borrowCount.sum(), createdCount.sum(), destroyedCount.sum(),
+                timeoutCount.sum(), validationFailures.sum(),
+                TimeUnit.NANOSECONDS.toMicros(borrowWaitNanos.sum()));
+    }
+
+    /**
+     * One physical connection plus the bookkeeping for its current lease.
+     */
+    private final class PooledEntry {
+        final Connection physical;
+        volatile long lastReturned;
+        // Statements opened during the current lease, closed when the lease ends
+        final List<Statement> openStatements = new ArrayList<>();
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+
+        // Puts the connection back into the state a fresh one would be in
+        void reset() throws SQLException {
+            for (Statement st : openStatements) {
+                try {
+                    st.close();
+                } catch (SQLException ignored) {
+                    // Closing a stale statement should not fail the return
+                }
+            }
+            openStatements.clear();
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+        }
+    }
+
+    /**
+     * Proxy handler for a single lease. close() returns the connection to the
+     * pool; any use after that fails like a closed connection would.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned = false;
+        private boolean broken = false;
+
+        LeaseHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        giveBack(entry, broken);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + entry.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            try {
+                Object result = method.invoke(entry.physical, args);
+                if (result instanceof Statement) {
+                    entry.openStatements.add((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                // Connection-level failures (SQLState class 08) mean the socket is gone
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    if (state != null && state.startsWith("08")) {
+                        broken = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+    }
+
+    /**
+     * Point-in-time view of the pool counters.
+     */
+    public static final class Stats {
+        public final int total;
+        public final int idle;
+        public final int active;
+        public final int minSize;
+        public final int maxSize;
+        public final long borrows;
+        public final long created;
+        public final long destroyed;
+        public final long timeouts;
+        public final long validationFailures;
+        public final long totalWaitMicros;
+
+        Stats(int total, int idle, int active, int minSize, int maxSize, long borrows,
+              long created, long destroyed, long timeouts, long validationFailures,
+              long totalWaitMicros) {
+            this.total = total;
+            this.idle = idle;
+            this.active = active;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.borrows = borrows;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.timeouts = timeouts;
+            this.validationFailures = validationFailures;
+            this.totalWaitMicros = totalWaitMicros;
+        }
+
+        @Override
+        public String toString() {
+            return "Pool[total=" + total + ", idle=" + idle + ", active=" + active
+                    + ", min=" + minSize + ", max=" + maxSize + ", borrows=" + borrows
+                    + ", created=" + created + ", destroyed=" + destroyed
+                    + ", timeouts=" + timeouts + ", validationFailures=" + validationFailures
+                    + ", avgWaitUs=" + (borrows == 0 ? 0 : totalWaitMicros / borrows) + "]";
+        }
+    }
+}
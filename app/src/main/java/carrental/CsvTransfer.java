@@ -0,0 +1,496 @@
+// CsvTransfer.java
+package carrental;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CsvTransfer - bulk CSV import and export for cars and bookings.
+ *
+ * Imports read the file one record at a time and insert in JDBC batches,
+ * committing every chunk (-Dcsv.import.chunkSize, default 500). A row that
+ * cannot be parsed, or that the database rejects, is reported with its line
+ * number and skipped; the rest of the file still goes in.
+ *
+ * Exports stream rows straight from a forward-only result set to the
+ * writer, so memory use does not depend on the size of the table.
+ *
+ * CSV files have a header row; columns are matched by name, in any order.
+ */
+public final class CsvTransfer {
+
+    public static final String[] CAR_COLUMNS = {"model", "daily_rent"};
+    public static final String[] BOOKING_COLUMNS = {
+        "id", "name", "email", "phone", "address", "car", "pickup_date",
+        "drop_date", "pickup_location", "dropoff_location", "price"
+    };
+
+    private static final int CHUNK_SIZE = Integer.getInteger("csv.import.chunkSize", 500);
+
+    // Seconds are optional on import
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+    private static final DateTimeFormatter EXPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private CsvTransfer() {
+    }
+
+    // --- Import ---
+
+    /**
+     * Imports cars (model, daily_rent). Models that already exist are reported as errors.
+     */
+    public static ImportResult importCars(Reader in) throws IOException, SQLException {
+        ImportResult result = importRows(in, CAR_COLUMNS, CsvTransfer::parseCar,
+                "INSERT INTO available_cars (model, daily_rent) VALUES (?, ?)",
+                (ps, car) -> {
+                    ps.setString(1, car.model);
+                    ps.setInt(2, car.dailyRent);
+                },
+                car -> {
+                    if (!Repositories.cars().addCar(car.model, car.dailyRent)) {
+                        throw new SQLException("Car " + car.model + " already exists.");
+                    }
+                    return 0;
+                },
+                (car, id) -> { },
+                count -> {
+                    CarCatalog.getInstance().invalidate();
+                    EventBus.getInstance().publish(CarEvent.imported(count));
+                });
+        if (result.getImported() > 0) {
+            CarCatalog.getInstance().invalidate();
+        }
+        return result;
+    }
+
+    /**
+     * Imports bookings. The id column, if present, is ignored: every row gets a new id.
+     */
+    public static ImportResult importBookings(Reader in) throws IOException, SQLException {
+        return importRows(in, required(BOOKING_COLUMNS), CsvTransfer::parseBooking,
+                BookingDAO.INSERT_SQL,
+                BookingDAO::bindInsert,
+                booking -> Repositories.bookings().insertBooking(booking),
+                (b, id) -> AvailabilityIndex.getInstance().add(id, b.getCar(), b.getPickup(), b.getDrop()),
+                count -> EventBus.getInstance().publish(BookingEvent.imported(count)));
+    }
+
+    private static <T> ImportResult importRows(Reader in, String[] required, RowParser<T> parser,
+                                               String insertSql, RowBinder<T> binder,
+                                               MemoryInsert<T> memoryInsert, Inserted<T> inserted,
+                                               Committed committed)
+            throws IOException, SQLException {
+        CsvReader csv = new CsvReader(in);
+        ImportResult result = new ImportResult();
+        String[] header = csv.readRecord();
+        if (header == null) {
+            return result;
+        }
+        Map<String, Integer> columns = headerIndex(header, required);
+
+        if (Repositories.backend() == Repositories.Backend.MEMORY) {
+            for (String[] record; (record = csv.readRecord()) != null; ) {
+                int line = csv.getRecordLine();
+                try {
+                    T row = parser.parse(new Fields(record, columns));
+                    inserted.accept(row, memoryInsert.insert(row));
+                    result.imported++;
+                } catch (IllegalArgumentException | SQLException e) {
+                    result.addError(line, e.getMessage());
+                }
+            }
+            return result;
+        }
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false); // the pool restores autocommit when the connection goes back
+            List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<Integer> lines = new ArrayList<>(CHUNK_SIZE);
+            for (String[] record; (record = csv.readRecord()) != null; ) {
+                int line = csv.getRecordLine();
+                try {
+                    chunk.add(parser.parse(new Fields(record, columns)));
+                    lines.add(line);
+                } catch (IllegalArgumentException e) {
+                    result.addError(line, e.getMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(conn, ps, chunk, lines, binder, inserted, committed, result);
+                }
+            }
+            flush(conn, ps, chunk, lines, binder, inserted, committed, result);
+        }
+        return result;
+    }
+
+    // Inserts one chunk as a batch; if the batch fails, retries its rows one by one to find the bad ones
+    private static <T> void flush(Connection conn, PreparedStatement ps, List<T> chunk, List<Integer> lines,
+                                  RowBinder<T> binder, Inserted<T> inserted, Committed committed,
+                                  ImportResult result)
+            throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        int importedBefore = result.imported;
+        try {
+            for (T row : chunk) {
+                binder.bind(ps, row);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (int i = 0; i < chunk.size() && keys.next(); i++) {
+                    inserted.accept(chunk.get(i), keys.getInt(1));
+                }
+            }
+            result.imported += chunk.size();
+        } catch (SQLException batchError) {
+            conn.rollback();
+            ps.clearBatch();
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    binder.bind(ps, chunk.get(i));
+                    ps.executeUpdate();
+                    conn.commit();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            inserted.accept(chunk.get(i), keys.getInt(1));
+                        }
+                    }
+                    result.imported++;
+                } catch (SQLException rowError) {
+                    conn.rollback();
+                    result.addError(lines.get(i), rowError.getMessage());
+                }
+            }
+        }
+        if (result.imported > importedBefore) {
+            committed.accept(result.imported - importedBefore);
+        }
+        chunk.clear();
+        lines.clear();
+    }
+
+    private static CarRow parseCar(Fields f) {
+        String model = f.required("model");
+        int rent = f.integer("daily_rent");
+        if (rent <= 0) {
+            throw new IllegalArgumentException("daily_rent must be positive");
+        }
+        return new CarRow(model, rent);
+    }
+
+    private static Booking parseBooking(Fields f) {
+        Date pickup = f.date("pickup_date");
+        Date drop = f.date("drop_date");
+        if (!drop.after(pickup)) {
+            throw new IllegalArgumentException("drop_date must be after pickup_date");
+        }
+        int price = f.integer("price");
+        if (price < 0) {
+            throw new IllegalArgumentException("price must not be negative");
+        }
+        return new Booking(f.required("name"), f.required("email"), f.required("phone"),
+                f.optional("address"), f.required("car"), pickup, drop,
+                f.optional("pickup_location"), f.optional("dropoff_location"), price);
+    }
+
+    // Every booking column except the generated id must be present
+    private static String[] required(String[] columns) {
+        List<String> names = new ArrayList<>();
+        for (String c : columns) {
+            if (!c.equals("id")) {
+                names.add(c);
+            }
+        }
+        return names.toArray(new String[0]);
+    }
+
+    private static Map<String, Integer> headerIndex(String[] header, String[] required) throws IOException {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            index.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : required) {
+            if (!index.containsKey(column)) {
+                throw new IOException("CSV header is missing the '" + column + "' column.");
+            }
+        }
+        return index;
+    }
+
+    // --- Export ---
+
+    public static int exportCars(Writer out) throws IOException {
+        BufferedWriter w = new BufferedWriter(out);
+        writeRecord(w, CAR_COLUMNS);
+        int count = 0;
+        for (Map.Entry<String, Integer> car : Repositories.cars().loadAllCars().entrySet()) {
+            writeRecord(w, car.getKey(), String.valueOf(car.getValue()));
+            count++;
+        }
+        w.flush();
+        return count;
+    }
+
+    /**
+     * Writes every booking, ordered by id. On JDBC the rows are streamed
+     * (see BookingDAO.forEachBooking), never held in memory together.
+     */
+    public static int exportBookings(Writer out) throws IOException, SQLException {
+        BufferedWriter w = new BufferedWriter(out);
+        writeRecord(w, BOOKING_COLUMNS);
+        int[] count = {0};
+        try {
+            Repositories.bookings().forEachBooking(b -> {
+                try {
+                    writeRecord(w, String.valueOf(b.getId()), b.getName(), b.getEmail(), b.getPhone(),
+                            b.getAddress(), b.getCar(), formatDate(b.getPickup()), formatDate(b.getDrop()),
+                            b.getPickupLocation(), b.getDropoffLocation(), String.valueOf(b.getPrice()));
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        w.flush();
+        return count[0];
+    }
+
+    private static String formatDate(Date date) {
+        return EXPORT_DATE_FORMAT.format(LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()));
+    }
+
+    private static void writeRecord(Writer w, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                w.write(',');
+            }
+            String field = fields[i] == null ? "" : fields[i];
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                    || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                w.write('"');
+                w.write(field.replace("\"", "\"\""));
+                w.write('"');
+            } else {
+                w.write(field);
+            }
+        }
+        w.write("\r\n");
+    }
+
+    // --- Results ---
+
+    /**
+     * Outcome of an import: how many rows went in and which did not.
+     */
+    public static final class ImportResult {
+        // Only the first errors are kept; the count covers all of them
+        private static final int MAX_ERRORS_KEPT = 1000;
+
+        private int imported;
+        private int errorCount;
+        private final List<String> errors = new ArrayList<>();
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        /** Messages of the form "line N: reason", in file order. */
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        void addError(int line, String message) {
+            errorCount++;
+            if (errors.size() < MAX_ERRORS_KEPT) {
+                errors.add("line " + line + ": " + message);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return imported + " row(s) imported, " + errorCount + " row(s) rejected";
+        }
+    }
+
+    // --- Parsing helpers ---
+
+    private interface RowParser<T> {
+        T parse(Fields fields);
+    }
+
+    private interface RowBinder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    // Inserts one row through the repositories (memory backend); returns its id
+    private interface MemoryInsert<T> {
+        int insert(T row) throws SQLException;
+    }
+
+    private interface Inserted<T> {
+        void accept(T row, int id);
+    }
+
+    // Called once per committed chunk. Batched rows bypass the repositories,
+    // so this is where their (single, bulk) event is published
+    private interface Committed {
+        void accept(int rows);
+    }
+
+    private static final class CarRow {
+        final String model;
+        final int dailyRent;
+
+        CarRow(String model, int dailyRent) {
+            this.model = model;
+            this.dailyRent = dailyRent;
+        }
+    }
+
+    // One record, looked up by column name
+    private static final class Fields {
+        private final String[] values;
+        private final Map<String, Integer> columns;
+
+        Fields(String[] values, Map<String, Integer> columns) {
+            this.values = values;
+            this.columns = columns;
+        }
+
+        String optional(String column) {
+            Integer i = columns.get(column);
+            return i == null || i >= values.length ? "" : values[i].trim();
+        }
+
+        String required(String column) {
+            String value = optional(column);
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException(column + " is empty");
+            }
+            return value;
+        }
+
+        int integer(String column) {
+            String value = required(column);
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " is not a whole number: " + value);
+            }
+        }
+
+        Date date(String column) {
+            String value = required(column);
+            try {
+                LocalDateTime time = LocalDateTime.parse(value, DATE_FORMAT);
+                return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(column + " is not yyyy-MM-dd HH:mm[:ss]: " + value);
+            }
+        }
+    }
+
+    /**
+     * Reads RFC 4180 style records: quoted fields may contain commas,
+     * doubled quotes and line breaks.
+     */
+    private static final class CsvReader {
+        private final BufferedReader in;
+        private int line = 0;
+        private int recordLine = 0;
+
+        CsvReader(Reader in) {
+            this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        }
+
+        // Line number the last record started on (1-based)
+        int getRecordLine() {
+            return recordLine;
+        }
+
+        String[] readRecord() throws IOException {
+            String text;
+            do {
+                text = in.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isEmpty()); // skip blank lines
+            recordLine = line;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // Quoted field continues on the next line
+                    String next = in.readLine();
+                    line++;
+                    if (next == null) {
+                        throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                    }
+                    field.append('\n');
+                    text = next;
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < text.length() && text.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields.toArray(new String[0]);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package carrental;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DBUtil - hands out pooled connections to the DAOs.
+ *
+ * Connection settings and pool sizing can be overridden with system properties:
+ * db.url, db.user, db.password, db.pool.minSize, db.pool.maxSize,
+ * db.pool.idleTimeoutMs, db.pool.borrowTimeoutMs, db.pool.validateAfterIdleMs.
+ * db.trace=true times every statement and logs the slow ones (see SqlTracer).
+ */
+public class DBUtil {
+
+    private static final String URL =
+            System.getProperty("db.url", "jdbc:mysql://localhost:3306/mydatabase");
+
+    private static final String USER =
+            System.getProperty("db.user", "root");           // <-- your MySQL username
+    private static final String PASSWORD =
+            System.getProperty("db.password", "pranav2006"); // <-- your MySQL password
+
+    private static volatile ConnectionPool pool;
+
+    /**
+     * Borrows a connection from the pool. Closing it returns it to the pool.
+     */
+    public static Connection getConnection() throws SQLException {
+        Connection conn = pool().borrow();
+        return SqlTracer.ENABLED ? SqlTracer.wrap(conn) : conn;
+    }
+
+    /**
+     * Fetch size for forward-only result sets that should stream rows instead
+     * of buffering the whole result. MySQL Connector/J only streams when the
+     * fetch size is Integer.MIN_VALUE (or a positive size with useCursorFetch=true
+     * in the URL); other drivers take a normal row count. Override with db.fetchSize.
+     */
+    public static int streamingFetchSize() {
+        int defaultSize = URL.startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : 500;
+        return Integer.getInteger("db.fetchSize", defaultSize);
+    }
+
+    /**
+     * Current pool counters, or null if no connection has been requested yet.
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        ConnectionPool p = pool;
+        return p == null ? null : p.getStats();
+    }
+
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DBUtil.class) {
+                p = pool;
+                if (p == null) {
+                    p = createPool();
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    private static ConnectionPool createPool() throws SQLException {
+        if (URL.startsWith("jdbc:mysql:")) {
+            try {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("MySQL JDBC Driver not found.", e);
+            }
+        }
+        int maxSize = Integer.getInteger("db.pool.maxSize", 10);
+        int minSize = Math.min(Integer.getInteger("db.pool.minSize", 2), maxSize);
+        ConnectionPool p = new ConnectionPool(URL, USER, PASSWORD, minSize, maxSize,
+                Long.getLong("db.pool.idleTimeoutMs", 300_000L),
+                Long.getLong("db.pool.borrowTimeoutMs", 5_000L),
+                Long.getLong("db.pool.validateAfterIdleMs", 5_000L));
+        Runtime.getRuntime().addShutdownHook(new Thread(p::close, "db-pool-shutdown"));
+        return p;
+    }
+}
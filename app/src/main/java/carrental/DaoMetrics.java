@@ -0,0 +1,290 @@
+// DaoMetrics.java
+package carrental;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * DaoMetrics - call counts, errors, rows and latency percentiles for each
+ * DAO operation.
+ *
+ * A DAO looks its operations up once, into static fields, and brackets
+ * every call with them:
+ *
+ *   long start = System.nanoTime();
+ *   ...
+ *   LOAD.success(start, rows);      // or LOAD.failure(start, e)
+ *
+ * Recording only adds to LongAdders, so concurrent callers do not contend
+ * and nothing is allocated per call. Latencies go into a log-linear
+ * histogram with four buckets per power of two (each about 19% wide), which
+ * is what p50/p95/p99 are read from.
+ *
+ * Each operation is registered as a platform MXBean,
+ * carrental:type=DaoMetrics,dao=&lt;dao&gt;,name=&lt;operation&gt;, so JConsole or
+ * VisualVM can watch a running instance. carrental.metrics.jmx=false skips
+ * the registration; the counters are still kept.
+ */
+public final class DaoMetrics {
+
+    private static final boolean JMX = Boolean.parseBoolean(System.getProperty("carrental.metrics.jmx", "true"));
+
+    // Four sub-buckets per power of two. Values whose highest bit is b >= 2 go
+    // to SUB_BUCKETS * (b - 1) + sub, so MAX_BITS - 1 powers cover everything
+    // below 2^MAX_BITS ns (about 18 minutes); longer calls share the last bucket
+    private static final int SUB_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_BITS = 40;
+    private static final int BUCKETS = SUB_BUCKETS * (MAX_BITS - 1);
+
+    private static final Map<String, Operation> OPERATIONS = new ConcurrentHashMap<>();
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * The operation's metrics, created (and registered over JMX) on first use.
+     */
+    public static Operation operation(String dao, String name) {
+        return OPERATIONS.computeIfAbsent(dao + "." + name, key -> {
+            Operation op = new Operation(dao, name);
+            if (JMX) {
+                register(op);
+            }
+            return op;
+        });
+    }
+
+    /** Every operation recorded so far, ordered by DAO and name. */
+    public static List<Operation> operations() {
+        List<Operation> all = new ArrayList<>(OPERATIONS.values());
+        all.sort((a, b) -> (a.dao + "." + a.name).compareTo(b.dao + "." + b.name));
+        return all;
+    }
+
+    /** One line per operation that has been called, for logs and the console. */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Operation op : operations()) {
+            if (op.getCalls() > 0) {
+                sb.append(op).append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void register(Operation op) {
+        try {
+            ObjectName objectName = new ObjectName("carrental:type=DaoMetrics,dao=" + op.dao + ",name=" + op.name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(op, objectName);
+        } catch (JMException e) {
+            System.err.println("DAO metrics for " + op.dao + "." + op.name + " not exported over JMX: " + e);
+        }
+    }
+
+    static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (msb - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min(SUB_BUCKETS * (msb - 1) + sub, BUCKETS - 1);
+    }
+
+    // Smallest latency that lands in the bucket
+    static long bucketStart(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int msb = index / SUB_BUCKETS + 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (msb - SUB_BITS);
+    }
+
+    /**
+     * JMX view of one operation. Times are in milliseconds; percentiles are
+     * the upper edge of the histogram bucket they fall in.
+     */
+    public interface OperationMXBean {
+        long getCalls();
+
+        long getErrors();
+
+        long getRows();
+
+        double getMeanMillis();
+
+        double getP50Millis();
+
+        double getP95Millis();
+
+        double getP99Millis();
+
+        double getMaxMillis();
+
+        // toString() of the most recent failure, or null
+        String getLastError();
+
+        // Zeroes the counters; calls running at the time may be half counted
+        void reset();
+    }
+
+    /**
+     * Counters for one DAO operation.
+     */
+    public static final class Operation implements OperationMXBean {
+        private final String dao;
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private volatile String lastError;
+
+        Operation(String dao, String name) {
+            this.dao = dao;
+            this.name = name;
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public String getDao() {
+            return dao;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Records a successful call that started at startNanos (System.nanoTime())
+         * and read or wrote the given number of rows.
+         */
+        public void success(long startNanos, int rowCount) {
+            record(startNanos);
+            rows.add(rowCount);
+        }
+
+        /**
+         * Records a failed call.
+         */
+        public void failure(long startNanos, Throwable error) {
+            record(startNanos);
+            errors.increment();
+            lastError = error.toString();
+        }
+
+        private void record(long startNanos) {
+            long elapsed = System.nanoTime() - startNanos;
+            calls.increment();
+            totalNanos.add(elapsed);
+            maxNanos.accumulate(elapsed);
+            buckets[bucketIndex(elapsed)].increment();
+        }
+
+        @Override
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        @Override
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        @Override
+        public long getRows() {
+            return rows.sum();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            long n = calls.sum();
+            return n == 0 ? 0 : toMillis(totalNanos.sum() / n);
+        }
+
+        @Override
+        public double getP50Millis() {
+            return percentileMillis(0.50);
+        }
+
+        @Override
+        public double getP95Millis() {
+            return percentileMillis(0.95);
+        }
+
+        @Override
+        public double getP99Millis() {
+            return percentileMillis(0.99);
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return toMillis(maxNanos.get());
+        }
+
+        @Override
+        public String getLastError() {
+            return lastError;
+        }
+
+        @Override
+        public void reset() {
+            calls.reset();
+            errors.reset();
+            rows.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            lastError = null;
+        }
+
+        /**
+         * Latency below which the given fraction of calls completed.
+         */
+        public double percentileMillis(double fraction) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    // Never report more than the slowest call actually seen
+                    return toMillis(Math.min(bucketStart(i + 1) - 1, maxNanos.get()));
+                }
+            }
+            return getMaxMillis();
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s.%s[calls=%d, errors=%d, rows=%d, mean=%.2fms, p50=%.2fms, p95=%.2fms, p99=%.2fms, max=%.2fms]",
+                    dao, name, getCalls(), getErrors(), getRows(), getMeanMillis(),
+                    getP50Millis(), getP95Millis(), getP99Millis(), getMaxMillis());
+        }
+    }
+}
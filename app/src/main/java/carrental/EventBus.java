@@ -0,0 +1,136 @@
+// EventBus.java
+package carrental;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * EventBus - in-process publish/subscribe for domain events (CarEvent,
+ * BookingEvent).
+ *
+ * publish() returns at once; events are handed out on one dispatcher
+ * thread, so every subscriber sees them in publish order. Subscribers pick
+ * an event class and get that class and its subclasses. Swing code should
+ * use subscribeOnEdt, which delivers on the event dispatch thread.
+ *
+ * Publishers call publish() after their change is committed, so a handler
+ * never sees an event for data that was rolled back.
+ */
+public final class EventBus {
+
+    private static final EventBus INSTANCE = new EventBus();
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "event-bus");
+        t.setDaemon(true);
+        return t;
+    });
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private EventBus() {
+    }
+
+    public static EventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Delivers events of the given type to the handler on the dispatcher
+     * thread. Handlers should be quick; slow work belongs on AsyncDAO.
+     */
+    public <E> Subscription subscribe(Class<E> type, Consumer<? super E> handler) {
+        return add(new Subscription(type, handler, false));
+    }
+
+    /**
+     * Delivers events of the given type to the handler on the EDT.
+     */
+    public <E> Subscription subscribeOnEdt(Class<E> type, Consumer<? super E> handler) {
+        return add(new Subscription(type, handler, true));
+    }
+
+    private Subscription add(Subscription s) {
+        subscriptions.add(s);
+        return s;
+    }
+
+    /**
+     * Queues the event for every matching subscriber and returns immediately.
+     */
+    public void publish(Object event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event is required");
+        }
+        published.increment();
+        dispatcher.execute(() -> {
+            for (Subscription s : subscriptions) {
+                if (s.type.isInstance(event)) {
+                    s.deliver(event);
+                }
+            }
+        });
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    // Handlers that threw; the event still reaches the other subscribers
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * A registered handler. Close it when its owner goes away (e.g. when a
+     * window is disposed); events still queued for it are then dropped.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final Class<?> type;
+        private final Consumer<Object> handler;
+        private final boolean onEdt;
+        private volatile boolean active = true;
+
+        @SuppressWarnings("unchecked")
+        private Subscription(Class<?> type, Consumer<?> handler, boolean onEdt) {
+            this.type = type;
+            this.handler = (Consumer<Object>) handler;
+            this.onEdt = onEdt;
+        }
+
+        private void deliver(Object event) {
+            if (onEdt) {
+                SwingUtilities.invokeLater(() -> handle(event));
+            } else {
+                handle(event);
+            }
+        }
+
+        private void handle(Object event) {
+            if (!active) {
+                return;
+            }
+            try {
+                handler.accept(event);
+            } catch (RuntimeException e) {
+                failures.increment();
+                e.printStackTrace();
+            }
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public void close() {
+            active = false;
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+// ImageAssets.java
+package carrental;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ImageAssets - application-wide cache for the frame background images.
+ *
+ * Each file is decoded once, on a worker thread, into an image compatible
+ * with the screen. Copies scaled to the sizes components actually paint at
+ * are kept in a small LRU cache, so a repaint is a plain blit; a new size
+ * (e.g. after a resize) costs one scale.
+ *
+ * Scaled copies are only touched on the EDT.
+ */
+public final class ImageAssets {
+
+    public static final String LOGIN_BACKGROUND = "ddd.jpeg";
+    public static final String BOOKING_BACKGROUND = "ddd1.jpeg";
+    public static final String PAYMENT_BACKGROUND = "payment.jpg";
+
+    // A few windows at a couple of sizes each; older sizes are dropped first
+    private static final int MAX_SCALED_COPIES = 8;
+
+    private static final Map<String, CompletableFuture<BufferedImage>> DECODED = new ConcurrentHashMap<>();
+
+    private static final Map<String, BufferedImage> SCALED =
+            new LinkedHashMap<String, BufferedImage>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+                    return size() > MAX_SCALED_COPIES;
+                }
+            };
+
+    private ImageAssets() {
+    }
+
+    /**
+     * Starts decoding the given files in the background. Call at startup.
+     * @return completes when every file is decoded (or found unreadable)
+     */
+    public static CompletableFuture<Void> preload(String... files) {
+        CompletableFuture<?>[] decoding = new CompletableFuture<?>[files.length];
+        for (int i = 0; i < files.length; i++) {
+            decoding[i] = decode(files[i]);
+        }
+        return CompletableFuture.allOf(decoding);
+    }
+
+    /**
+     * Fills the component with the image scaled to its size, or with the
+     * fallback colour while the image is still loading (or missing). The
+     * component is repainted once the image is ready.
+     */
+    public static void paintBackground(Graphics g, Component c, String file, Color fallback) {
+        BufferedImage image = scaled(file, c.getWidth(), c.getHeight(), c);
+        if (image != null) {
+            g.drawImage(image, 0, 0, null);
+        } else if (fallback != null) {
+            g.setColor(fallback);
+            g.fillRect(0, 0, c.getWidth(), c.getHeight());
+        }
+    }
+
+    /**
+     * The image scaled to width x height, or null if it is not decoded yet
+     * (repaintWhenReady is then repainted when it is) or cannot be read.
+     */
+    public static BufferedImage scaled(String file, int width, int height, Component repaintWhenReady) {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        String key = file + '@' + width + 'x' + height;
+        BufferedImage image = SCALED.get(key);
+        if (image != null) {
+            return image;
+        }
+        CompletableFuture<BufferedImage> source = decode(file);
+        if (!source.isDone()) {
+            if (repaintWhenReady != null) {
+                source.thenRun(repaintWhenReady::repaint);
+            }
+            return null;
+        }
+        BufferedImage original = source.getNow(null);
+        if (original == null) {
+            return null;
+        }
+        image = scale(original, width, height);
+        SCALED.put(key, image);
+        return image;
+    }
+
+    private static CompletableFuture<BufferedImage> decode(String file) {
+        return DECODED.computeIfAbsent(file, f -> AsyncDAO.supply(() -> {
+            try {
+                BufferedImage raw = ImageIO.read(new File(f));
+                return raw == null ? null : scale(raw, raw.getWidth(), raw.getHeight());
+            } catch (IOException e) {
+                System.err.println("Could not load image " + f + ": " + e.getMessage());
+                return null;
+            }
+        }));
+    }
+
+    // Draws the source into a screen-compatible image of the given size
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage target;
+        if (GraphicsEnvironment.isHeadless()) {
+            target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        } else {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            target = gc.createCompatibleImage(width, height, Transparency.OPAQUE);
+        }
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+}
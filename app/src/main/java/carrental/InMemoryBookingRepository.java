@@ -0,0 +1,133 @@
+// InMemoryBookingRepository.java
+package carrental;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * BookingRepository kept in process memory, ordered by id.
+ * Used for offline demos and load tests (carrental.backend=memory).
+ */
+public class InMemoryBookingRepository implements BookingRepository {
+
+    private final ConcurrentSkipListMap<Integer, Booking> bookings = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final InMemoryChangeLog<Integer> changes = new InMemoryChangeLog<>(new HashMap<>());
+
+    @Override
+    public Vector<Vector<Object>> loadAllBookings() {
+        Vector<Vector<Object>> rows = new Vector<>(bookings.size());
+        for (Booking b : bookings.values()) {
+            rows.add(BookingDAO.toRow(b));
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Booking> loadBookingsPage(int afterId, int pageSize) {
+        List<Booking> page = new ArrayList<>(Math.min(pageSize, BookingDAO.DEFAULT_PAGE_SIZE));
+        for (Booking b : bookings.tailMap(afterId, false).values()) {
+            if (page.size() == pageSize) {
+                break;
+            }
+            page.add(b);
+        }
+        return page;
+    }
+
+    @Override
+    public List<Booking> loadBookingsAt(int offset, int limit) {
+        List<Booking> page = new ArrayList<>(Math.min(limit, BookingDAO.DEFAULT_PAGE_SIZE));
+        Iterator<Booking> it = bookings.values().iterator();
+        for (int skipped = 0; skipped < offset && it.hasNext(); skipped++) {
+            it.next();
+        }
+        while (it.hasNext() && page.size() < limit) {
+            page.add(it.next());
+        }
+        return page;
+    }
+
+    @Override
+    public int countBookings() {
+        return bookings.size();
+    }
+
+    @Override
+    public int countBookings(BookingQuery query) {
+        return (int) bookings.values().stream().filter(query::matches).count();
+    }
+
+    @Override
+    public List<Booking> findBookings(BookingQuery query, int offset, int limit) {
+        return bookings.values().stream()
+                .filter(query::matches)
+                .sorted(query.comparator())
+                .skip(offset)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Booking> findBookingsAfter(BookingQuery query, Booking last, int limit) {
+        Comparator<Booking> order = query.comparator();
+        return bookings.values().stream()
+                .filter(b -> query.matches(b) && order.compare(b, last) > 0)
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void forEachBooking(Consumer<Booking> handler) {
+        bookings.values().forEach(handler);
+    }
+
+    @Override
+    public void forEachBookingPickedUpBetween(Date from, Date to, Consumer<Booking> handler) {
+        bookings.values().stream()
+                .filter(b -> !b.getPickup().before(from) && b.getPickup().before(to))
+                .sorted(Comparator.comparing(Booking::getPickup).thenComparingInt(Booking::getId))
+                .forEach(handler);
+    }
+
+    @Override
+    public int insertBooking(Booking booking) {
+        int id = nextId.incrementAndGet();
+        Booking saved = booking.withId(id);
+        bookings.put(id, saved);
+        changes.changed(id);
+        EventBus.getInstance().publish(BookingEvent.created(saved));
+        return id;
+    }
+
+    @Override
+    public boolean deleteBooking(int bookingId) {
+        if (bookings.remove(bookingId) != null) {
+            changes.deleted(bookingId);
+            AvailabilityIndex.getInstance().remove(bookingId);
+            EventBus.getInstance().publish(BookingEvent.deleted(bookingId));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long changeToken() {
+        return changes.token();
+    }
+
+    @Override
+    public ChangeSet<Booking> changesSince(long token) {
+        return changes.since(token, bookings::get);
+    }
+}
@@ -0,0 +1,73 @@
+// InMemoryCarRepository.java
+package carrental;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * CarRepository kept in process memory, seeded with the default fleet.
+ * Used for offline demos and load tests (carrental.backend=memory).
+ */
+public class InMemoryCarRepository implements CarRepository {
+
+    private final ConcurrentSkipListMap<String, Integer> cars =
+            new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final InMemoryChangeLog<String> changes =
+            new InMemoryChangeLog<>(new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+
+    public InMemoryCarRepository() {
+        cars.putAll(SchemaMigrator.DEFAULT_CARS);
+    }
+
+    @Override
+    public Map<String, Integer> loadAllCars() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(cars));
+    }
+
+    @Override
+    public boolean addCar(String model, int dailyRent) {
+        if (cars.putIfAbsent(model, dailyRent) != null) {
+            return false;
+        }
+        changes.changed(model);
+        EventBus.getInstance().publish(CarEvent.added(model, dailyRent));
+        return true;
+    }
+
+    @Override
+    public boolean updateCarPrice(String model, int newDailyRent) {
+        if (cars.replace(model, newDailyRent) == null) {
+            return false;
+        }
+        changes.changed(model);
+        EventBus.getInstance().publish(CarEvent.repriced(model, newDailyRent));
+        return true;
+    }
+
+    @Override
+    public boolean deleteCar(String model) {
+        if (cars.remove(model) == null) {
+            return false;
+        }
+        changes.deleted(model);
+        EventBus.getInstance().publish(CarEvent.removed(model));
+        return true;
+    }
+
+    @Override
+    public long changeToken() {
+        return changes.token();
+    }
+
+    @Override
+    public ChangeSet<Map.Entry<String, Integer>> changesSince(long token) {
+        return changes.since(token, model -> {
+            Integer rent = cars.get(model);
+            return rent == null ? null : new AbstractMap.SimpleImmutableEntry<>(model, rent);
+        });
+    }
+}
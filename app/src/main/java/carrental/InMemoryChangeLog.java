@@ -0,0 +1,84 @@
+// InMemoryChangeLog.java
+package carrental;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Change tracking for the in-memory repositories. Tokens are a version
+ * counter; each key remembers the version of its last change and deletes
+ * keep a tombstone (the newest MAX_TOMBSTONES of them). Live changes are
+ * also indexed by version, so a poll only walks what changed after its token.
+ *
+ * Repositories change their data first and log it afterwards, so a change
+ * that is visible to a reader always has a version above any token that
+ * reader was handed before it.
+ */
+final class InMemoryChangeLog<K> {
+
+    private static final int MAX_TOMBSTONES = 10_000;
+
+    private final Map<K, Long> changed;
+    // Inverse of changed: each live key under the version of its last change
+    private final TreeMap<Long, K> changedByVersion = new TreeMap<>();
+    private final TreeMap<Long, K> deleted = new TreeMap<>();
+    private long version;
+    // Tokens below this may have lost tombstones to pruning
+    private long prunedThrough;
+
+    /**
+     * @param changed empty map to track changed keys in (its ordering and
+     *                equality define which keys are the same row)
+     */
+    InMemoryChangeLog(Map<K, Long> changed) {
+        this.changed = changed;
+    }
+
+    synchronized long token() {
+        return version;
+    }
+
+    synchronized void changed(K key) {
+        Long previous = changed.put(key, ++version);
+        if (previous != null) {
+            changedByVersion.remove(previous);
+        }
+        changedByVersion.put(version, key);
+    }
+
+    synchronized void deleted(K key) {
+        Long previous = changed.remove(key);
+        if (previous != null) {
+            changedByVersion.remove(previous);
+        }
+        deleted.put(++version, key);
+        if (deleted.size() > MAX_TOMBSTONES) {
+            prunedThrough = deleted.pollFirstEntry().getKey();
+        }
+    }
+
+    /**
+     * Rows changed after the token, looked up with current (keys that have
+     * gone again are skipped), plus the keys deleted after it.
+     */
+    synchronized <T> ChangeSet<T> since(long token, Function<K, T> current) {
+        if (token < prunedThrough) {
+            return ChangeSet.reset(version);
+        }
+        List<T> rows = new ArrayList<>();
+        for (K key : changedByVersion.tailMap(token, false).values()) {
+            T row = current.apply(key);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        List<String> keys = new ArrayList<>();
+        for (K key : deleted.tailMap(token, false).values()) {
+            keys.add(String.valueOf(key));
+        }
+        return new ChangeSet<>(rows, keys, version, false);
+    }
+}
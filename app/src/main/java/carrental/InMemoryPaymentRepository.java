@@ -0,0 +1,27 @@
+// InMemoryPaymentRepository.java
+package carrental;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PaymentRepository for offline demos and load tests (carrental.backend=memory).
+ * Card and UPI details are never kept; only the number of payments is counted.
+ */
+public class InMemoryPaymentRepository implements PaymentRepository {
+
+    private final LongAdder cardPayments = new LongAdder();
+    private final LongAdder upiPayments = new LongAdder();
+
+    @Override
+    public void insertPayment(int bookingId, Payment payment) {
+        (payment.isUpi() ? upiPayments : cardPayments).increment();
+    }
+
+    public long getCardPaymentCount() {
+        return cardPayments.sum();
+    }
+
+    public long getUpiPaymentCount() {
+        return upiPayments.sum();
+    }
+}
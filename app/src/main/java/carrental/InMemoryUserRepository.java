@@ -0,0 +1,27 @@
+// InMemoryUserRepository.java
+package carrental;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UserRepository kept in process memory.
+ * Used for offline demos and load tests (carrental.backend=memory).
+ */
+public class InMemoryUserRepository implements UserRepository {
+
+    private final PasswordHasher hasher = PasswordHasher.getDefault();
+    // username -> password hash, as in the users table
+    private final Map<String, String> passwords = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean registerUser(String username, String password) {
+        return passwords.putIfAbsent(username, hasher.hash(password)) == null;
+    }
+
+    @Override
+    public boolean loginUser(String username, String password) {
+        String stored = passwords.get(username);
+        return stored != null && hasher.verify(password, stored);
+    }
+}
@@ -0,0 +1,115 @@
+// PasswordHasher.java
+package carrental;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PasswordHasher - salted PBKDF2 (HMAC-SHA256) password hashes.
+ *
+ * Stored form: pbkdf2$&lt;iterations&gt;$&lt;salt&gt;$&lt;hash&gt; (Base64), so each hash
+ * carries its own cost and older hashes keep verifying after the cost is
+ * raised. The cost for new hashes is -Dauth.hash.iterations (default 120000);
+ * higher is slower for attackers and for every login alike. A stored hash
+ * whose cost is more than MAX_COST_FACTOR times the higher of that cost and
+ * the built-in default is treated as unreadable, so a corrupt or tampered
+ * row cannot tie up a login for minutes.
+ */
+public final class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int DEFAULT_ITERATIONS = 120_000;
+    private static final int MAX_COST_FACTOR = 4;
+
+    private static final PasswordHasher DEFAULT =
+            new PasswordHasher(Integer.getInteger("auth.hash.iterations", DEFAULT_ITERATIONS));
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+    // Highest stored cost verify will run
+    private final long maxStoredIterations;
+
+    public PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.iterations = iterations;
+        this.maxStoredIterations = (long) MAX_COST_FACTOR * Math.max(iterations, DEFAULT_ITERATIONS);
+    }
+
+    public static PasswordHasher getDefault() {
+        return DEFAULT;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + '$' + b64.encodeToString(salt) + '$'
+                + b64.encodeToString(derive(password, salt, iterations));
+    }
+
+    /**
+     * Checks a password against a stored value. Values that are not hashes
+     * (accounts created before hashing) are compared as plaintext; a hash
+     * that cannot be read, or claims an implausibly high cost, never matches.
+     */
+    public boolean verify(String password, String stored) {
+        if (!isHash(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            if (storedIterations > maxStoredIterations) {
+                return false;
+            }
+            Base64.Decoder b64 = Base64.getDecoder();
+            byte[] expected = b64.decode(parts[3]);
+            byte[] actual = derive(password, b64.decode(parts[2]), storedIterations);
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            // Bad Base64, a non-numeric or non-positive cost, or an empty salt
+            return false;
+        }
+    }
+
+    /**
+     * True if the stored value should be replaced by a fresh hash: it is
+     * plaintext, or was hashed at a different cost.
+     */
+    public boolean needsRehash(String stored) {
+        return !isHash(stored) || !stored.startsWith(PREFIX + iterations + '$');
+    }
+
+    public static boolean isHash(String stored) {
+        return stored.startsWith(PREFIX);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
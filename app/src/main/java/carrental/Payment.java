@@ -0,0 +1,38 @@
+// Payment.java
+package carrental;
+
+/**
+ * Payment - the details captured on the payment page: a card (mycards
+ * table) or a UPI id (myupi table). Immutable.
+ */
+public final class Payment {
+
+    private final String upiId;
+    private final String cardNumber;
+    private final String cardHolder;
+    private final String expiry;
+    private final String cvv;
+
+    private Payment(String upiId, String cardNumber, String cardHolder, String expiry, String cvv) {
+        this.upiId = upiId;
+        this.cardNumber = cardNumber;
+        this.cardHolder = cardHolder;
+        this.expiry = expiry;
+        this.cvv = cvv;
+    }
+
+    public static Payment card(String cardNumber, String cardHolder, String expiry, String cvv) {
+        return new Payment(null, cardNumber, cardHolder, expiry, cvv);
+    }
+
+    public static Payment upi(String upiId) {
+        return new Payment(upiId, null, null, null, null);
+    }
+
+    public boolean isUpi() { return upiId != null; }
+    public String getUpiId() { return upiId; }
+    public String getCardNumber() { return cardNumber; }
+    public String getCardHolder() { return cardHolder; }
+    public String getExpiry() { return expiry; }
+    public String getCvv() { return cvv; }
+}
@@ -0,0 +1,48 @@
+// PaymentDAO.java
+package carrental;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+public class PaymentDAO implements PaymentRepository {
+
+    private static final DaoMetrics.Operation INSERT = DaoMetrics.operation("PaymentDAO", "insertPayment");
+
+    @Override
+    public void insertPayment(int bookingId, Payment payment) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection()) {
+            insert(conn, bookingId, payment);
+        } catch (SQLException e) {
+            INSERT.failure(start, e);
+            throw e;
+        }
+        INSERT.success(start, 1);
+    }
+
+    /**
+     * Inserts the payment on the caller's connection, so it can share a
+     * transaction with its booking (see CheckoutService).
+     */
+    static void insert(Connection conn, int bookingId, Payment payment) throws SQLException {
+        if (payment.isUpi()) {
+            String sql = "INSERT INTO myupi (upi_id, booking_id) VALUES (?,?)";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, payment.getUpiId());
+                ps.setInt(2, bookingId);
+                ps.executeUpdate();
+            }
+        } else {
+            String sql = "INSERT INTO mycards (card_number, card_name, expiry, cvv, booking_id) VALUES (?,?,?,?,?)";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, payment.getCardNumber());
+                ps.setString(2, payment.getCardHolder());
+                ps.setString(3, payment.getExpiry());
+                ps.setString(4, payment.getCvv());
+                ps.setInt(5, bookingId);
+                ps.executeUpdate();
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
+package carrental;
+
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 public class PaymentPage extends JFrame {
 
@@ -15,35 +18,51 @@ public class PaymentPage extends JFrame {
     private final Date pickup, drop;
     private final int price; // <--- NEW FIELD
 
-    public PaymentPage(String name, String email, String phone,
-                       String car, Date pickup, Date drop,
-                       String pickupLoc, String dropoffLoc, int price) { // <--- MODIFIED: Added price
+    // Not saved yet: CheckoutService saves it together with the payment
+    private final Booking booking;
+    // The car's window, reserved until the booking is paid for (null if none)
+    private final AvailabilityIndex.Hold hold;
+    private boolean paid = false;
+    // The latest checkout; the hold is only given up if this never succeeded
+    private CompletableFuture<Integer> checkout;
+
+    public PaymentPage(Booking booking, AvailabilityIndex.Hold hold) {
 
         // NEW: Assign all parameters to fields
-        this.name = name;
-        this.email = email;
-        this.phone = phone;
-        this.car = car;
-        this.pickup = pickup;
-        this.drop = drop;
-        this.pickupLoc = pickupLoc;
-        this.dropoffLoc = dropoffLoc;
-        this.price = price; // <--- NEW: Store price
+        this.booking = booking;
+        this.hold = hold;
+        this.name = booking.getName();
+        this.email = booking.getEmail();
+        this.phone = booking.getPhone();
+        this.car = booking.getCar();
+        this.pickup = booking.getPickup();
+        this.drop = booking.getDrop();
+        this.pickupLoc = booking.getPickupLocation();
+        this.dropoffLoc = booking.getDropoffLocation();
+        this.price = booking.getPrice(); // <--- NEW: Store price
 
         setTitle("Payment Page");
         setExtendedState(JFrame.MAXIMIZED_BOTH);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
-        // ---- Background Panel that auto-scales image ----
-        ImageIcon bgIcon = new ImageIcon("payment.jpg"); // your image file
-        Image bgImage = bgIcon.getImage();
+        // Leaving without paying frees the car for other customers
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                if (!paid && hold != null && (checkout == null || !checkout.isDone()
+                        || checkout.isCompletedExceptionally())) {
+                    AvailabilityIndex.getInstance().release(hold);
+                }
+            }
+        });
 
+        // ---- Background Panel that auto-scales image ----
         JPanel bgPanel = new JPanel(new BorderLayout()) {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                // draw scaled image to fit current size
-                g.drawImage(bgImage, 0, 0, getWidth(), getHeight(), this);
+                // pre-scaled copy of payment.jpg for the current size
+                ImageAssets.paintBackground(g, this, ImageAssets.PAYMENT_BACKGROUND, null);
             }
         };
         setContentPane(bgPanel);
@@ -224,73 +243,60 @@ public class PaymentPage extends JFrame {
                 return;
             }
 
-            if (method.equals("UPI")) {
-                insertPaymentUPI(upi);
-            } else {
-                insertPayment(cardNum, cardName, expiry, cvv);
-            }
-
-            // MODIFIED: Call ReceiptPage instead of showing a simple message
-            new ReceiptPage(
-                this.name, this.email, this.phone, 
-                this.car, this.pickup, this.drop, 
-                this.pickupLoc, this.dropoffLoc, this.price
-            ).setVisible(true);
-
-            otpDialog.dispose();
-            this.dispose();
+            // Save the booking and payment together, off the EDT; the receipt opens once both are stored
+            Payment payment = method.equals("UPI")
+                    ? Payment.upi(upi)
+                    : Payment.card(cardNum, cardName, expiry, cvv);
+            // Not cancellable: once it is running the payment may go through either way
+            checkout = CheckoutService.getInstance().checkoutAsync(booking, payment, hold);
+
+            UiTask.run(otpDialog, "Processing payment...", checkout, bookingId -> {
+                paid = true;
+                // MODIFIED: Call ReceiptPage instead of showing a simple message
+                new ReceiptPage(
+                    bookingId,
+                    this.name, this.email, this.phone, 
+                    this.car, this.pickup, this.drop, 
+                    this.pickupLoc, this.dropoffLoc, this.price
+                ).setVisible(true);
+
+                otpDialog.dispose();
+                this.dispose();
+            }, error -> {
+                if (error instanceof AvailabilityIndex.ConflictException
+                        || error instanceof BookingService.PriceChangedException) {
+                    // Paying again will not help; the booking has to be made again
+                    JOptionPane.showMessageDialog(otpDialog,
+                            error.getMessage() + " Please go back and make the booking again.",
+                            "Booking Not Saved", JOptionPane.WARNING_MESSAGE);
+                } else if (error instanceof IllegalArgumentException) {
+                    // BookingService.validate refused it; nothing reached the database
+                    JOptionPane.showMessageDialog(otpDialog,
+                            error.getMessage() + " Please go back and correct the booking.",
+                            "Validation", JOptionPane.WARNING_MESSAGE);
+                } else {
+                    UiTask.showError(otpDialog, error);
+                }
+            });
         });
 
         otpDialog.setVisible(true);
     }
 
-    private void insertPayment(String cardNum, String cardHolder,
-                               String expiry, String cvv) {
-        String sql = "INSERT INTO mycards (card_number, card_name, expiry, cvv) VALUES (?,?,?,?)";
-        // NOTE: This assumes you have a DBUtil.getConnection() class available
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, cardNum);
-            ps.setString(2, cardHolder);
-            ps.setString(3, expiry);
-            ps.setString(4, cvv);
-            ps.executeUpdate();
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this,
-                    "Database error: " + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private void insertPaymentUPI(String upiId) {
-        String sql = "INSERT INTO myupi (upi_id) VALUES (?)";
-        // NOTE: This assumes you have a DBUtil.getConnection() class available
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, upiId);
-            ps.executeUpdate();
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this,
-                    "Database error: " + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() ->
-            new PaymentPage(
+            new PaymentPage(new Booking(
                 "John Doe",
                 "john@example.com",
                 "1234567890",
+                "",
                 "Audi A8",
                 new Date(),
                 new Date(System.currentTimeMillis() + 3600000),
                 "Kochi",
                 "Alappuzha",
                 940 // Placeholder price for testing
-            ).setVisible(true)
+            ), null).setVisible(true)
         );
     }
 }
@@ -0,0 +1,14 @@
+// PaymentRepository.java
+package carrental;
+
+import java.sql.SQLException;
+
+/**
+ * Storage for payment details captured at checkout.
+ * Implemented by PaymentDAO (MySQL) and InMemoryPaymentRepository.
+ */
+public interface PaymentRepository {
+
+    // Saves the payment against an already saved booking
+    void insertPayment(int bookingId, Payment payment) throws SQLException;
+}
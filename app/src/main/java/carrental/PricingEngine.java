@@ -0,0 +1,184 @@
+// PricingEngine.java
+package carrental;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * PricingEngine - prices a rental of a car over a pickup/drop window.
+ *
+ * A rental is billed per whole day, at least one: the price is the car's
+ * daily rent times the number of billable days. Quotes are memoized by
+ * (car, billable days, daily rent), so any two windows of the same length
+ * share a quote and a rent change never serves a stale price.
+ *
+ * Safe to use from any thread; nothing here touches Swing.
+ */
+public final class PricingEngine {
+
+    static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    // Memo is dropped wholesale when it grows past this
+    private static final int MAX_CACHED_QUOTES = 10_000;
+
+    private static volatile PricingEngine shared;
+
+    private final Supplier<Map<String, Integer>> rates;
+    private final Map<Key, Quote> quotes = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param rates current car model -> daily rent; read on every quote
+     */
+    public PricingEngine(Supplier<Map<String, Integer>> rates) {
+        this.rates = rates;
+    }
+
+    /**
+     * Engine priced from the configured car repository (see Repositories).
+     */
+    public static PricingEngine getInstance() {
+        if (shared == null) {
+            synchronized (PricingEngine.class) {
+                if (shared == null) {
+                    shared = new PricingEngine(() -> Repositories.cars().loadAllCars());
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Whole days billed for the window: at least one, partial days round down.
+     * @throws IllegalArgumentException if drop is not after pickup
+     */
+    public static int billableDays(Date pickup, Date drop) {
+        long diffMs = drop.getTime() - pickup.getTime();
+        if (diffMs <= 0) {
+            throw new IllegalArgumentException("Drop date must be after pickup date.");
+        }
+        return (int) Math.max(1, diffMs / DAY_MS);
+    }
+
+    /**
+     * Prices one car over the window.
+     * @return the quote, or null if the car is not in the fleet
+     * @throws IllegalArgumentException if drop is not after pickup
+     */
+    public Quote quote(String car, Date pickup, Date drop) {
+        Integer dailyRent = car == null ? null : rates.get().get(car);
+        if (dailyRent == null) {
+            return null;
+        }
+        return quote(car, dailyRent, billableDays(pickup, drop));
+    }
+
+    /**
+     * Prices the car at a daily rent the caller has just read (e.g. inside a
+     * booking transaction) rather than the fleet's cached one.
+     * @throws IllegalArgumentException if drop is not after pickup
+     */
+    public Quote quote(String car, int dailyRent, Date pickup, Date drop) {
+        return quote(car, dailyRent, billableDays(pickup, drop));
+    }
+
+    /**
+     * Prices every car in the fleet over the same window, in fleet order.
+     * @throws IllegalArgumentException if drop is not after pickup
+     */
+    public Map<String, Quote> quoteFleet(Date pickup, Date drop) {
+        int days = billableDays(pickup, drop);
+        Map<String, Integer> fleet = rates.get();
+        Map<String, Quote> result = new LinkedHashMap<>(fleet.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Integer> entry : fleet.entrySet()) {
+            result.put(entry.getKey(), quote(entry.getKey(), entry.getValue(), days));
+        }
+        return result;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private Quote quote(String car, int dailyRent, int days) {
+        Key key = new Key(car, dailyRent, days);
+        Quote cached = quotes.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        if (quotes.size() >= MAX_CACHED_QUOTES) {
+            quotes.clear();
+        }
+        Quote quote = new Quote(car, dailyRent, days);
+        quotes.put(key, quote);
+        return quote;
+    }
+
+    /**
+     * A priced rental. Immutable.
+     */
+    public static final class Quote {
+        private final String car;
+        private final int dailyRent;
+        private final int days;
+        private final int total;
+
+        Quote(String car, int dailyRent, int days) {
+            this.car = car;
+            this.dailyRent = dailyRent;
+            this.days = days;
+            this.total = dailyRent * days;
+        }
+
+        public String getCar() { return car; }
+        public int getDailyRent() { return dailyRent; }
+        public int getDays() { return days; }
+        public int getTotal() { return total; }
+
+        @Override
+        public String toString() {
+            return car + ": " + days + " day(s) x $" + dailyRent + " = $" + total;
+        }
+    }
+
+    // Memo key: the window is already normalised to its billable days
+    private static final class Key {
+        final String car;
+        final int dailyRent;
+        final int days;
+        final int hash;
+
+        Key(String car, int dailyRent, int days) {
+            this.car = car;
+            this.dailyRent = dailyRent;
+            this.days = days;
+            this.hash = Objects.hash(car, dailyRent, days);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return dailyRent == k.dailyRent && days == k.days && car.equals(k.car);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package carrental;
+
 import javax.swing.*;
 import java.awt.*;
 import java.text.SimpleDateFormat;
@@ -13,7 +15,7 @@ public class ReceiptPage extends JFrame {
     private GridBagConstraints gbc;
     private int y = 0; // Initialize 'y' as a class field to be mutable and accessible
 
-    public ReceiptPage(String name, String email, String phone,
+    public ReceiptPage(int bookingId, String name, String email, String phone,
                        String car, Date pickup, Date drop,
                        String pickupLoc, String dropoffLoc, int price) {
         
@@ -48,6 +50,9 @@ public class ReceiptPage extends JFrame {
         
         // --- Details ---
         
+        // Booking reference
+        addDetail("Booking ID:", "#" + bookingId);
+
         // Customer Details
         addDetail("Customer Name:", name);
         addDetail("Email:", email);
@@ -111,7 +116,7 @@ public class ReceiptPage extends JFrame {
         // Example usage for testing
         SwingUtilities.invokeLater(() ->
             new ReceiptPage(
-                "Customer Name", "customer@email.com", "9876543210",
+                1001, "Customer Name", "customer@email.com", "9876543210",
                 "Range Rover", new Date(), 
                 new Date(System.currentTimeMillis() + 86400000 * 3), // 3 days later
                 "Kochi", "Alappuzha", 3000
@@ -0,0 +1,363 @@
+// ReceiptRenderer.java
+package carrental;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ReceiptRenderer - builds receipt documents for bookings without any UI.
+ *
+ * Text and HTML receipts are filled in from the templates in
+ * /carrental/receipts (parsed once, then cached); PDF receipts are the text
+ * receipt laid out on a single page. Rendering runs on a fixed worker pool
+ * sized to the CPU count.
+ *
+ * exportRange writes one file per booking for a pickup-date range. Bookings
+ * are streamed from the repository and only a bounded number are in flight
+ * at once, so memory use does not grow with the size of the range.
+ *
+ * Command line: ReceiptRenderer &lt;from yyyy-MM-dd&gt; &lt;to yyyy-MM-dd&gt; [txt|html|pdf] [dir]
+ */
+public final class ReceiptRenderer {
+
+    public enum Format {
+        TEXT("receipt.txt", "txt"),
+        HTML("receipt.html", "html"),
+        PDF("receipt.txt", "pdf");
+
+        final String template;
+        final String extension;
+
+        Format(String template, String extension) {
+            this.template = template;
+            this.extension = extension;
+        }
+    }
+
+    private static final ReceiptRenderer INSTANCE = new ReceiptRenderer();
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+
+    private final Map<Format, Template> templates = new EnumMap<>(Format.class);
+    private final int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+        Thread t = new Thread(r, "receipt-render-" + threadCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ReceiptRenderer() {
+    }
+
+    public static ReceiptRenderer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Renders one receipt on the calling thread.
+     */
+    public byte[] render(Booking booking, Format format) {
+        String filled = template(format).fill(fields(booking, format == Format.HTML));
+        return format == Format.PDF
+                ? Pdf.singlePage(filled)
+                : filled.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Renders one receipt on the worker pool.
+     */
+    public CompletableFuture<byte[]> renderAsync(Booking booking, Format format) {
+        return CompletableFuture.supplyAsync(() -> render(booking, format), workers);
+    }
+
+    /**
+     * Writes a receipt file (receipt-&lt;id&gt;.&lt;ext&gt;) into dir for every booking
+     * picked up in [from, to).
+     * @return the number of receipts written
+     */
+    public int exportRange(Date from, Date to, Format format, Path dir) throws SQLException, IOException {
+        Files.createDirectories(dir);
+        // Bounds how many bookings are held at once while the pool catches up
+        Semaphore inFlight = new Semaphore(threads * 4);
+        AtomicInteger written = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        try {
+            Repositories.bookings().forEachBookingPickedUpBetween(from, to, booking -> {
+                if (failure.get() != null) {
+                    throw new ExportFailed(); // stop reading; nothing more will be written
+                }
+                inFlight.acquireUninterruptibly();
+                workers.execute(() -> {
+                    try {
+                        Path file = dir.resolve("receipt-" + booking.getId() + "." + format.extension);
+                        Files.write(file, render(booking, format));
+                        written.incrementAndGet();
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            });
+        } catch (ExportFailed e) {
+            // reported from failure below
+        } finally {
+            // Wait for the last renders, so no file is still being written into dir
+            inFlight.acquireUninterruptibly(threads * 4);
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        } else if (t != null) {
+            throw new IOException("Receipt export failed: " + t.getMessage(), t);
+        }
+        return written.get();
+    }
+
+    private Template template(Format format) {
+        synchronized (templates) {
+            return templates.computeIfAbsent(format, f -> Template.parse(loadResource(f.template)));
+        }
+    }
+
+    private static String loadResource(String name) {
+        try (InputStream in = ReceiptRenderer.class.getResourceAsStream("receipts/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing receipt template " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, String> fields(Booking b, boolean html) {
+        Map<String, String> f = new HashMap<>();
+        f.put("bookingId", String.valueOf(b.getId()));
+        f.put("issued", DATE_FORMAT.format(LocalDateTime.now()));
+        f.put("name", b.getName());
+        f.put("email", b.getEmail());
+        f.put("phone", b.getPhone());
+        f.put("address", b.getAddress());
+        f.put("car", b.getCar());
+        f.put("pickup", format(b.getPickup()));
+        f.put("drop", format(b.getDrop()));
+        f.put("pickupLocation", b.getPickupLocation());
+        f.put("dropoffLocation", b.getDropoffLocation());
+        f.put("days", b.getDrop().after(b.getPickup())
+                ? String.valueOf(PricingEngine.billableDays(b.getPickup(), b.getDrop())) : "-");
+        f.put("price", String.valueOf(b.getPrice()));
+        if (html) {
+            f.replaceAll((k, v) -> escapeHtml(v));
+        }
+        return f;
+    }
+
+    private static String format(Date date) {
+        return DATE_FORMAT.format(LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()));
+    }
+
+    private static String escapeHtml(String s) {
+        if (s == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<': out.append("&lt;"); break;
+                case '>': out.append("&gt;"); break;
+                case '&': out.append("&amp;"); break;
+                case '"': out.append("&quot;"); break;
+                case '\'': out.append("&#39;"); break;
+                default: out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    // Ends the booking stream early once a render has failed
+    private static final class ExportFailed extends RuntimeException {
+        ExportFailed() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * A template split into literal text and {{field}} references.
+     */
+    private static final class Template {
+        // Even indexes are literal text, odd indexes are field names
+        private final String[] parts;
+
+        private Template(String[] parts) {
+            this.parts = parts;
+        }
+
+        static Template parse(String text) {
+            List<String> parts = new ArrayList<>();
+            int pos = 0;
+            while (true) {
+                int open = text.indexOf("{{", pos);
+                int close = open < 0 ? -1 : text.indexOf("}}", open + 2);
+                if (close < 0) {
+                    parts.add(text.substring(pos));
+                    break;
+                }
+                parts.add(text.substring(pos, open));
+                parts.add(text.substring(open + 2, close).trim());
+                pos = close + 2;
+            }
+            return new Template(parts.toArray(new String[0]));
+        }
+
+        String fill(Map<String, String> fields) {
+            StringBuilder out = new StringBuilder(512);
+            for (int i = 0; i < parts.length; i++) {
+                if (i % 2 == 0) {
+                    out.append(parts[i]);
+                } else {
+                    String value = fields.get(parts[i]);
+                    out.append(value == null ? "" : value);
+                }
+            }
+            return out.toString();
+        }
+    }
+
+    /**
+     * Just enough PDF to show lines of text on one A4 page in Courier.
+     */
+    private static final class Pdf {
+
+        static byte[] singlePage(String text) {
+            StringBuilder content = new StringBuilder("BT /F1 11 Tf 14 TL 56 790 Td\n");
+            for (String line : text.split("\r?\n", -1)) {
+                content.append('(').append(escape(line)).append(") Tj T*\n");
+            }
+            content.append("ET");
+            byte[] stream = content.toString().getBytes(StandardCharsets.ISO_8859_1);
+
+            String[] objects = {
+                "<< /Type /Catalog /Pages 2 0 R >>",
+                "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+                "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 595 842] "
+                    + "/Resources << /Font << /F1 4 0 R >> >> /Contents 5 0 R >>",
+                "<< /Type /Font /Subtype /Type1 /BaseFont /Courier >>",
+                null // content stream, written below
+            };
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stream.length + 1024);
+            int[] offsets = new int[objects.length];
+            write(out, "%PDF-1.4\n");
+            for (int i = 0; i < objects.length; i++) {
+                offsets[i] = out.size();
+                write(out, (i + 1) + " 0 obj\n");
+                if (objects[i] != null) {
+                    write(out, objects[i]);
+                } else {
+                    write(out, "<< /Length " + stream.length + " >>\nstream\n");
+                    out.write(stream, 0, stream.length);
+                    write(out, "\nendstream");
+                }
+                write(out, "\nendobj\n");
+            }
+            int xref = out.size();
+            write(out, "xref\n0 " + (objects.length + 1) + "\n0000000000 65535 f \n");
+            for (int offset : offsets) {
+                write(out, String.format("%010d 00000 n \n", offset));
+            }
+            write(out, "trailer\n<< /Size " + (objects.length + 1) + " /Root 1 0 R >>\nstartxref\n"
+                    + xref + "\n%%EOF\n");
+            return out.toByteArray();
+        }
+
+        // Only Latin-1 can be shown with a standard font; anything else becomes '?'
+        private static String escape(String line) {
+            StringBuilder out = new StringBuilder(line.length());
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '(' || c == ')' || c == '\\') {
+                    out.append('\\').append(c);
+                } else if (c < 32 || c > 255) {
+                    out.append('?');
+                } else {
+                    out.append(c);
+                }
+            }
+            return out.toString();
+        }
+
+        private static void write(ByteArrayOutputStream out, String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.ISO_8859_1);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String usage = "Usage: ReceiptRenderer <from yyyy-MM-dd> <to yyyy-MM-dd> [txt|html|pdf] [dir]";
+        if (args.length < 2) {
+            System.err.println(usage);
+            System.exit(1);
+        }
+        SimpleDateFormat day = new SimpleDateFormat("yyyy-MM-dd");
+        Date from;
+        Date to;
+        try {
+            from = day.parse(args[0]);
+            to = day.parse(args[1]);
+        } catch (ParseException e) {
+            System.err.println("Dates must be yyyy-MM-dd: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        Format format = args.length > 2 ? null : Format.TEXT;
+        if (args.length > 2) {
+            for (Format f : Format.values()) {
+                if (f.extension.equalsIgnoreCase(args[2])) {
+                    format = f;
+                }
+            }
+        }
+        if (format == null) {
+            System.err.println("Unknown format '" + args[2] + "'.");
+            System.err.println(usage);
+            System.exit(1);
+            return;
+        }
+        Path dir = Paths.get(args.length > 3 ? args[3] : "receipts");
+
+        Repositories.initializeBackend();
+        long start = System.nanoTime();
+        int count = INSTANCE.exportRange(from, to, format, dir);
+        System.out.println("Wrote " + count + " receipts to " + dir.toAbsolutePath() + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
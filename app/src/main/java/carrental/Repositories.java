@@ -0,0 +1,84 @@
+// Repositories.java
+package carrental;
+
+import java.sql.SQLException;
+
+/**
+ * Repositories - picks the storage backend once, at startup.
+ *
+ * -Dcarrental.backend=jdbc (default) uses the MySQL DAOs through DBUtil;
+ * -Dcarrental.backend=memory keeps everything in process memory, so the app
+ * and the perf tools run without a database server.
+ */
+public final class Repositories {
+
+    public enum Backend { JDBC, MEMORY }
+
+    private static final Backend BACKEND =
+            Backend.valueOf(System.getProperty("carrental.backend", "jdbc").trim().toUpperCase());
+
+    private static volatile CarRepository cars;
+    private static volatile BookingRepository bookings;
+    private static volatile UserRepository users;
+    private static volatile PaymentRepository payments;
+
+    private Repositories() {
+    }
+
+    public static Backend backend() {
+        return BACKEND;
+    }
+
+    /**
+     * Prepares the backend for use (brings the schema up to date for JDBC).
+     */
+    public static void initializeBackend() throws SQLException {
+        if (BACKEND == Backend.JDBC) {
+            SchemaMigrator.migrate();
+        }
+    }
+
+    public static CarRepository cars() {
+        if (cars == null) {
+            synchronized (Repositories.class) {
+                if (cars == null) {
+                    cars = BACKEND == Backend.MEMORY ? new InMemoryCarRepository() : new CarDAO();
+                }
+            }
+        }
+        return cars;
+    }
+
+    public static BookingRepository bookings() {
+        if (bookings == null) {
+            synchronized (Repositories.class) {
+                if (bookings == null) {
+                    bookings = BACKEND == Backend.MEMORY ? new InMemoryBookingRepository() : new BookingDAO();
+                }
+            }
+        }
+        return bookings;
+    }
+
+    public static UserRepository users() {
+        if (users == null) {
+            synchronized (Repositories.class) {
+                if (users == null) {
+                    users = BACKEND == Backend.MEMORY ? new InMemoryUserRepository() : new UserDAO();
+                }
+            }
+        }
+        return users;
+    }
+
+    public static PaymentRepository payments() {
+        if (payments == null) {
+            synchronized (Repositories.class) {
+                if (payments == null) {
+                    payments = BACKEND == Backend.MEMORY ? new InMemoryPaymentRepository() : new PaymentDAO();
+                }
+            }
+        }
+        return payments;
+    }
+}
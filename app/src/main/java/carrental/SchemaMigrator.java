@@ -0,0 +1,366 @@
+// SchemaMigrator.java
+package carrental;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SchemaMigrator - owns the database schema.
+ *
+ * Migrations are numbered and applied in order; each applied version is
+ * recorded in schema_version, so a database is only ever brought forward
+ * from where it is. migrate() does the work once per process and is cheap
+ * to call again afterwards.
+ *
+ * To change the schema, append a new Migration to MIGRATIONS. Never edit
+ * one that has already shipped.
+ *
+ * MySQL commits every DDL statement on its own, so a migration that fails
+ * halfway leaves its first statements applied. Every step is therefore safe
+ * to run twice: plain SQL only where it says IF NOT EXISTS (or is otherwise
+ * repeatable), and createIndex, dropIndex, addColumn and addForeignKey,
+ * which look at the schema first. Fixing the cause and starting again
+ * finishes the migration.
+ */
+public final class SchemaMigrator {
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    static {
+        MIGRATIONS.add(new Migration(1, "Base tables",
+            "CREATE TABLE IF NOT EXISTS available_cars ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                + "model VARCHAR(255) NOT NULL UNIQUE,"
+                + "daily_rent INT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS users ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                + "username VARCHAR(50) NOT NULL UNIQUE,"
+                + "password VARCHAR(100) NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS bookings ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                + "name VARCHAR(100) NOT NULL,"
+                + "email VARCHAR(100) NOT NULL,"
+                + "phone VARCHAR(20) NOT NULL,"
+                + "address VARCHAR(255),"
+                + "car VARCHAR(255) NOT NULL,"
+                + "pickup_date DATETIME NOT NULL,"
+                + "drop_date DATETIME NOT NULL,"
+                + "pickup_location VARCHAR(255),"
+                + "dropoff_location VARCHAR(255),"
+                + "price INT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS mycards ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                + "card_number VARCHAR(25) NOT NULL,"
+                + "card_name VARCHAR(100) NOT NULL,"
+                + "expiry VARCHAR(10) NOT NULL,"
+                + "cvv VARCHAR(5) NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS myupi ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                + "upi_id VARCHAR(100) NOT NULL)"));
+
+        // Indexes for the existing access paths:
+        // - availability checks look up one car's bookings by pickup/drop window
+        // - the admin list pages bookings by pickup date
+        // Login looks users up by username alone, which its UNIQUE index covers.
+        MIGRATIONS.add(new Migration(2, "Indexes for hot queries",
+            createIndex("bookings", "idx_bookings_car_dates", "car, pickup_date, drop_date"),
+            createIndex("bookings", "idx_bookings_pickup", "pickup_date")));
+
+        MIGRATIONS.add(new Migration(3, "Default cars", SchemaMigrator::seedDefaultCars));
+
+        // Passwords are stored as PBKDF2 hashes, which need more room. Databases
+        // set up by an early V2 also have a (username, password) index that
+        // hashed passwords make useless; it goes if it is there
+        MIGRATIONS.add(new Migration(4, "Password hashes",
+            sql("ALTER TABLE users MODIFY password VARCHAR(255) NOT NULL"),
+            dropIndex("users", "idx_users_login")));
+
+        // Payments point at the booking they paid for (saved together by CheckoutService).
+        // Rows from before this have no booking; deleting a booking keeps its payment record.
+        MIGRATIONS.add(new Migration(5, "Link payments to bookings",
+            addColumn("mycards", "booking_id", "INT NULL"),
+            addForeignKey("mycards", "fk_mycards_booking",
+                "FOREIGN KEY (booking_id) REFERENCES bookings (id) ON DELETE SET NULL"),
+            addColumn("myupi", "booking_id", "INT NULL"),
+            addForeignKey("myupi", "fk_myupi_booking",
+                "FOREIGN KEY (booking_id) REFERENCES bookings (id) ON DELETE SET NULL")));
+
+        // Admin booking search (BookingQuery): prefix matches on the customer and
+        // location columns and sorting on them. Car filters and pickup ranges are
+        // already covered by V2. Each secondary index also holds the primary key,
+        // so "ORDER BY col, id" is read straight off it.
+        MIGRATIONS.add(new Migration(6, "Indexes for booking search",
+            createIndex("bookings", "idx_bookings_name", "name"),
+            createIndex("bookings", "idx_bookings_email", "email"),
+            createIndex("bookings", "idx_bookings_phone", "phone"),
+            createIndex("bookings", "idx_bookings_drop", "drop_date"),
+            createIndex("bookings", "idx_bookings_pickup_location", "pickup_location"),
+            createIndex("bookings", "idx_bookings_dropoff_location", "dropoff_location")));
+
+        // Change tracking for incremental refreshes (see ChangeLog): MySQL stamps
+        // updated_at on every insert and update, deletes leave a tombstone
+        MIGRATIONS.add(new Migration(7, "Change tracking",
+            addColumn("available_cars", "updated_at",
+                "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)"),
+            createIndex("available_cars", "idx_cars_updated", "updated_at"),
+            addColumn("bookings", "updated_at",
+                "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)"),
+            createIndex("bookings", "idx_bookings_updated", "updated_at"),
+            sql("CREATE TABLE IF NOT EXISTS deleted_rows ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                + "table_name VARCHAR(64) NOT NULL,"
+                + "row_key VARCHAR(255) NOT NULL,"
+                + "deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3))"),
+            createIndex("deleted_rows", "idx_deleted_rows", "table_name, deleted_at")));
+
+        // Optimistic concurrency for bookings (see BookingService): booking a car or
+        // changing its rent bumps the version, so a checkout that read an older one
+        // knows to start over
+        MIGRATIONS.add(new Migration(8, "Car versions",
+            addColumn("available_cars", "version", "INT NOT NULL DEFAULT 0")));
+    }
+
+    /** The starter fleet, also used by InMemoryCarRepository. */
+    static final Map<String, Integer> DEFAULT_CARS = Map.of(
+        "Mercedes C-Class", 900,
+        "BMW 7 Series", 850,
+        "Audi A8", 940,
+        "Toyota Alphard", 900,
+        "Range Rover", 1000,
+        "Lexus LS", 999,
+        "Mercedes E-Class", 1000,
+        "Land Rover Defender", 1200
+    );
+
+    private static volatile boolean migrated = false;
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Applies every pending migration. Only the first successful call per
+     * process touches the database.
+     */
+    public static void migrate() throws SQLException {
+        if (migrated) {
+            return;
+        }
+        synchronized (SchemaMigrator.class) {
+            if (migrated) {
+                return;
+            }
+            try (Connection conn = DBUtil.getConnection()) {
+                ensureVersionTable(conn);
+                int current = currentVersion(conn);
+                int startVersion = current;
+                for (Migration m : MIGRATIONS) {
+                    if (m.version > current) {
+                        apply(conn, m);
+                        current = m.version;
+                    }
+                }
+                if (current != startVersion) {
+                    // Migrations may have changed cached tables (e.g. seeded cars)
+                    CarCatalog.getInstance().invalidate();
+                }
+            }
+            migrated = true;
+        }
+    }
+
+    /**
+     * Highest migration this build knows about.
+     */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    private static void apply(Connection conn, Migration m) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            m.step.apply(conn);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                ps.setInt(1, m.version);
+                ps.setString(2, m.description);
+                ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            // Another instance may have applied it while we were starting up
+            if (currentVersion(conn) >= m.version) {
+                return;
+            }
+            throw new SQLException("Schema migration V" + m.version + " (" + m.description + ") failed: "
+                    + e.getMessage(), e);
+        }
+        System.out.println("Applied schema migration V" + m.version + " - " + m.description
+                + " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+
+    private static void ensureVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INT PRIMARY KEY,"
+                    + "description VARCHAR(200) NOT NULL,"
+                    + "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // Adds the starter fleet, but only to an empty table
+    private static void seedDefaultCars(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM available_cars")) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                return;
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO available_cars (model, daily_rent) VALUES (?, ?)")) {
+            for (Map.Entry<String, Integer> entry : DEFAULT_CARS.entrySet()) {
+                ps.setString(1, entry.getKey());
+                ps.setInt(2, entry.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // --- Repeatable steps ---
+
+    // Only for statements that are safe to run again as they are
+    private static Step sql(String statement) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(statement);
+            }
+        };
+    }
+
+    private static Step createIndex(String table, String index, String columns) {
+        return conn -> {
+            if (!hasIndex(conn, table, index)) {
+                sql("CREATE INDEX " + index + " ON " + table + " (" + columns + ")").apply(conn);
+            }
+        };
+    }
+
+    private static Step dropIndex(String table, String index) {
+        return conn -> {
+            if (hasIndex(conn, table, index)) {
+                sql("DROP INDEX " + index + " ON " + table).apply(conn);
+            }
+        };
+    }
+
+    private static Step addColumn(String table, String column, String definition) {
+        return conn -> {
+            if (!hasColumn(conn, table, column)) {
+                sql("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition).apply(conn);
+            }
+        };
+    }
+
+    private static Step addForeignKey(String table, String constraint, String definition) {
+        return conn -> {
+            if (!hasForeignKey(conn, table, constraint)) {
+                sql("ALTER TABLE " + table + " ADD CONSTRAINT " + constraint + " " + definition).apply(conn);
+            }
+        };
+    }
+
+    private static boolean hasIndex(Connection conn, String table, String index) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), conn.getSchema(), identifier(meta, table),
+                false, true)) {
+            return contains(rs, "INDEX_NAME", index);
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), conn.getSchema(), identifier(meta, table), null)) {
+            return contains(rs, "COLUMN_NAME", column);
+        }
+    }
+
+    private static boolean hasForeignKey(Connection conn, String table, String constraint) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getImportedKeys(conn.getCatalog(), conn.getSchema(), identifier(meta, table))) {
+            return contains(rs, "FK_NAME", constraint);
+        }
+    }
+
+    private static boolean contains(ResultSet rs, String column, String name) throws SQLException {
+        while (rs.next()) {
+            if (name.equalsIgnoreCase(rs.getString(column))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Table names are looked up the way the database stores unquoted identifiers
+    private static String identifier(DatabaseMetaData meta, String name) throws SQLException {
+        if (meta.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        if (meta.storesLowerCaseIdentifiers()) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+        return name;
+    }
+
+    /**
+     * Body of a migration, or one step of it. Must be safe to run again
+     * after a failure; see the class comment.
+     */
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+
+        Migration(int version, String description, Step first, Step... rest) {
+            this(version, description, conn -> {
+                first.apply(conn);
+                for (Step s : rest) {
+                    s.apply(conn);
+                }
+            });
+        }
+
+        Migration(int version, String description, String... statements) {
+            this(version, description, conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    for (String sql : statements) {
+                        stmt.execute(sql);
+                    }
+                }
+            });
+        }
+    }
+}
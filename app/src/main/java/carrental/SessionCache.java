@@ -0,0 +1,115 @@
+// SessionCache.java
+package carrental;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SessionCache - logged-in users, kept in memory with a sliding expiry.
+ *
+ * Once a user has logged in, checking their session, or logging in again
+ * with the same password before it expires, never reaches the users table
+ * or the (deliberately slow) password hash. The password itself is not
+ * kept, only a salted SHA-256 digest under a key that lives in this process.
+ *
+ * Expiry: -Dauth.session.ttlMinutes (default 30) after the last use.
+ */
+public final class SessionCache {
+
+    private static final SessionCache INSTANCE =
+            new SessionCache(Long.getLong("auth.session.ttlMinutes", 30) * 60_000);
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final byte[] key = new byte[32];
+    private final long ttlMs;
+
+    SessionCache(long ttlMs) {
+        this.ttlMs = ttlMs;
+        new SecureRandom().nextBytes(key);
+    }
+
+    public static SessionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a successful login and returns its session.
+     */
+    public Session open(String username, String password) {
+        Session session = new Session(username, digest(username, password));
+        session.touch(ttlMs);
+        sessions.put(username, session);
+        return session;
+    }
+
+    /**
+     * The user's live session if the password matches the one it was opened
+     * with, otherwise null (the caller then checks the database).
+     */
+    public Session resume(String username, String password) {
+        Session session = sessions.get(username);
+        if (session == null || !isActive(session)) {
+            return null;
+        }
+        return MessageDigest.isEqual(session.digest, digest(username, password)) ? session : null;
+    }
+
+    /**
+     * True if the session has not expired or been closed; extends it if so.
+     */
+    public boolean isActive(Session session) {
+        if (session == null || sessions.get(session.username) != session) {
+            return false;
+        }
+        if (System.currentTimeMillis() > session.expiresAt) {
+            sessions.remove(session.username, session);
+            return false;
+        }
+        session.touch(ttlMs);
+        return true;
+    }
+
+    public void close(Session session) {
+        if (session != null) {
+            sessions.remove(session.username, session);
+        }
+    }
+
+    private byte[] digest(String username, String password) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(key);
+            md.update(username.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            return md.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One logged-in user.
+     */
+    public static final class Session {
+        private final String username;
+        private final byte[] digest;
+        private volatile long expiresAt;
+
+        private Session(String username, byte[] digest) {
+            this.username = username;
+            this.digest = digest;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        private void touch(long ttlMs) {
+            expiresAt = System.currentTimeMillis() + ttlMs;
+        }
+    }
+}
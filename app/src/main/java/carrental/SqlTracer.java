@@ -0,0 +1,385 @@
+// SqlTracer.java
+package carrental;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * SqlTracer - optional timing proxy around the connections DBUtil hands out,
+ * with a slow-query log.
+ *
+ * Statements, prepared statements and result sets from a traced connection
+ * are wrapped too. Each execute is timed, and so is reading its results
+ * (every next() until the result set is exhausted or closed), whether they
+ * come from executeQuery, getResultSet or getGeneratedKeys; the two count
+ * as one statement.
+ * Statements whose execute + fetch time reaches db.trace.slowMs (default
+ * 200) are written to a rolling log with their SQL, bind count, row count
+ * and the DAO method that ran them.
+ *
+ * Off unless db.trace=true. When off, DBUtil returns the pool's connection
+ * untouched, so the only cost is one check of a static final flag.
+ *
+ * Log settings: db.trace.file (java.util.logging pattern, default
+ * slow-queries%g.log), db.trace.maxBytes (default 5 MB per file) and
+ * db.trace.files (default 5 files kept).
+ */
+public final class SqlTracer {
+
+    static final boolean ENABLED = Boolean.getBoolean("db.trace");
+
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("db.trace.slowMs", 200L));
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private static final Logger SLOW_LOG = Logger.getLogger("carrental.sql.slow");
+    private static volatile boolean logOpened = false;
+
+    private static final LongAdder traced = new LongAdder();
+    private static final LongAdder slow = new LongAdder();
+
+    private SqlTracer() {
+    }
+
+    /**
+     * Wraps the connection so its statements are timed.
+     */
+    static Connection wrap(Connection conn) {
+        return (Connection) new ConnectionHandler(conn).newProxy(Connection.class);
+    }
+
+    /** Statements timed so far. */
+    public static long getTracedStatements() {
+        return traced.sum();
+    }
+
+    /** Statements that went over the threshold. */
+    public static long getSlowStatements() {
+        return slow.sum();
+    }
+
+    // Common handling for the proxies: identity methods stay on the proxy,
+    // everything else goes to the real object with its own exception
+    private abstract static class Handler implements InvocationHandler {
+        final Object target;
+        // The proxy this handler serves, so getConnection()/getStatement() can hand it out
+        Object proxy;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        final Object newProxy(Class<?> type) {
+            proxy = Proxy.newProxyInstance(SqlTracer.class.getClassLoader(), new Class<?>[]{type}, this);
+            return proxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Traced[" + target + "]";
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        final Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class ConnectionHandler extends Handler {
+        // Open traced statements, so closing the connection reports what they still hold
+        private final List<StatementHandler> statements = new ArrayList<>();
+
+        ConnectionHandler(Connection conn) {
+            super(conn);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                for (StatementHandler s : statements) {
+                    s.finishExecution();
+                }
+                statements.clear();
+                return call(method, args);
+            }
+            Object result = call(method, args);
+            if (result instanceof Statement
+                    && (name.equals("createStatement") || name.equals("prepareStatement") || name.equals("prepareCall"))) {
+                String sql = name.equals("createStatement") ? null : (String) args[0];
+                StatementHandler handler = new StatementHandler((Statement) result, sql, this);
+                statements.add(handler);
+                return handler.newProxy(method.getReturnType());
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends Handler {
+        private final String preparedSql;
+        private final ConnectionHandler owner;
+        private int binds = 0;
+        private int batched = 0;
+        private String lastSql;
+        // The latest execute, reported once its results are read or the statement moves on
+        private Execution execution;
+
+        StatementHandler(Statement statement, String sql, ConnectionHandler owner) {
+            super(statement);
+            this.preparedSql = sql;
+            this.owner = owner;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.equals("getConnection")) {
+                return owner.proxy;
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                binds = Math.max(binds, (Integer) args[0]);
+            } else if (name.equals("clearParameters")) {
+                binds = 0;
+            } else if (name.equals("addBatch")) {
+                batched++;
+            } else if (name.equals("clearBatch")) {
+                batched = 0;
+            } else if (name.equals("close")) {
+                finishExecution();
+                owner.statements.remove(this);
+            }
+            Object result = call(method, args);
+            if (result instanceof ResultSet && (name.equals("getResultSet") || name.equals("getGeneratedKeys"))) {
+                // Reading these is part of the execute that produced them
+                return traceResults((ResultSet) result);
+            }
+            return result;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishExecution(); // a new execute closes the previous one's results
+            // Plain statements take the SQL as the first argument
+            String sql = sqlFor(args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null);
+            lastSql = sql;
+            int batchSize = method.getName().equals("executeBatch") ? batched : 0;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(method, args);
+            } catch (Throwable e) {
+                finish(sql, binds, batchSize, System.nanoTime() - start, 0, -1, e);
+                throw e;
+            }
+            execution = new Execution(sql, binds, batchSize, System.nanoTime() - start);
+            if (method.getName().equals("executeBatch")) {
+                batched = 0;
+            }
+            if (result instanceof ResultSet) {
+                return traceResults((ResultSet) result);
+            }
+            return result;
+        }
+
+        private Object traceResults(ResultSet rs) {
+            return new ResultSetHandler(rs, this, execution).newProxy(ResultSet.class);
+        }
+
+        void finishExecution() {
+            if (execution != null) {
+                execution.finish();
+                execution = null;
+            }
+        }
+
+        private String sqlFor(String executed) {
+            if (executed != null) {
+                return executed;
+            }
+            return lastSql != null ? lastSql : preparedSql;
+        }
+    }
+
+    // One execute and the reading of its results; reported once
+    private static final class Execution {
+        private final String sql;
+        private final int binds;
+        private final int batchSize;
+        private final long executeNanos;
+        private long fetchNanos = 0;
+        private int rows = -1;
+        private boolean finished = false;
+
+        Execution(String sql, int binds, int batchSize, long executeNanos) {
+            this.sql = sql;
+            this.binds = binds;
+            this.batchSize = batchSize;
+            this.executeNanos = executeNanos;
+        }
+
+        void fetched(long nanos, boolean row) {
+            fetchNanos += nanos;
+            rows = Math.max(rows, 0) + (row ? 1 : 0);
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                SqlTracer.finish(sql, binds, batchSize, executeNanos, fetchNanos, rows, null);
+            }
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+        private final StatementHandler statement;
+        // null if the statement had no execute to charge the reads to
+        private final Execution execution;
+
+        ResultSetHandler(ResultSet rs, StatementHandler statement, Execution execution) {
+            super(rs);
+            this.statement = statement;
+            this.execution = execution;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getStatement")) {
+                return statement.proxy;
+            }
+            if (name.equals("next")) {
+                long start = System.nanoTime();
+                boolean more = (Boolean) call(method, args);
+                if (execution != null) {
+                    execution.fetched(System.nanoTime() - start, more);
+                    if (!more) {
+                        execution.finish();
+                    }
+                }
+                return more;
+            }
+            if (name.equals("close") && execution != null) {
+                execution.finish();
+            }
+            return call(method, args);
+        }
+    }
+
+    // Counts the statement and logs it if it went over the threshold
+    private static void finish(String sql, int binds, int batchSize, long executeNanos, long fetchNanos,
+                               int rows, Throwable error) {
+        traced.increment();
+        if (executeNanos + fetchNanos < SLOW_NANOS) {
+            return;
+        }
+        slow.increment();
+        StringBuilder line = new StringBuilder(256);
+        line.append(String.format("%.1f ms", (executeNanos + fetchNanos) / 1e6));
+        if (rows >= 0) {
+            line.append(String.format(" (execute %.1f + fetch %.1f ms, %d rows)",
+                    executeNanos / 1e6, fetchNanos / 1e6, rows));
+        }
+        line.append(' ').append(caller()).append(" [").append(Thread.currentThread().getName())
+                .append("] binds=").append(binds);
+        if (batchSize > 0) {
+            line.append(" batch=").append(batchSize);
+        }
+        if (error != null) {
+            line.append(" failed: ").append(error);
+        }
+        line.append(" | ").append(compact(sql));
+        log(line.toString());
+    }
+
+    // First frame in the application's own code that is not part of the plumbing
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("carrental.")
+                        && !f.getClassName().startsWith(SqlTracer.class.getName())
+                        && !f.getClassName().startsWith(ConnectionPool.class.getName())
+                        && !f.getClassName().equals(DBUtil.class.getName()))
+                .findFirst()
+                .map(f -> f.getClassName().substring("carrental.".length()) + "." + f.getMethodName()
+                        + ":" + f.getLineNumber())
+                .orElse("?"));
+    }
+
+    private static String compact(String sql) {
+        if (sql == null) {
+            return "(no SQL)";
+        }
+        String oneLine = sql.replaceAll("\\s+", " ").trim();
+        return oneLine.length() <= MAX_SQL_LENGTH ? oneLine : oneLine.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+
+    private static void log(String line) {
+        if (!logOpened) {
+            openLog();
+        }
+        SLOW_LOG.warning(line);
+    }
+
+    private static synchronized void openLog() {
+        if (logOpened) {
+            return;
+        }
+        SLOW_LOG.setUseParentHandlers(false);
+        try {
+            FileHandler file = new FileHandler(System.getProperty("db.trace.file", "slow-queries%g.log"),
+                    Integer.getInteger("db.trace.maxBytes", 5 * 1024 * 1024),
+                    Integer.getInteger("db.trace.files", 5), true);
+            file.setFormatter(new LineFormatter());
+            SLOW_LOG.addHandler(file);
+        } catch (IOException e) {
+            // Still worth seeing, even without the file
+            System.err.println("Slow-query log file could not be opened, logging to stderr: " + e);
+            SLOW_LOG.setUseParentHandlers(true);
+        }
+        SLOW_LOG.setLevel(Level.ALL);
+        logOpened = true;
+    }
+
+    private static final class LineFormatter extends Formatter {
+        private static final DateTimeFormatter TIME =
+                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+        @Override
+        public String format(LogRecord record) {
+            return TIME.format(Instant.ofEpochMilli(record.getMillis())) + " " + record.getMessage()
+                    + System.lineSeparator();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+// Startup.java
+package carrental;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Startup - background warm-up and startup-phase timings.
+ *
+ * warmUp() runs while the first frame is being shown: the database
+ * connection and schema check come first, then the car catalog and the
+ * availability index load in parallel, and the background images are
+ * decoded alongside all of it. With -Dcarrental.startupTimings=true each
+ * phase is logged with its duration and the time since JVM start, so
+ * time-to-first-frame can be compared between builds.
+ */
+public final class Startup {
+
+    private static final long JVM_START = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final boolean TIMINGS = Boolean.getBoolean("carrental.startupTimings");
+
+    private Startup() {
+    }
+
+    /**
+     * Logs that a phase has been reached (only with -Dcarrental.startupTimings=true).
+     */
+    public static void mark(String phase) {
+        log(phase + " at " + sinceJvmStart() + " ms");
+    }
+
+    /**
+     * Starts warming every cache the first screens need. Never blocks.
+     */
+    public static CompletableFuture<Void> warmUp() {
+        long start = System.currentTimeMillis();
+
+        CompletableFuture<Void> images = timed("background images", () -> {
+            ImageAssets.preload(ImageAssets.LOGIN_BACKGROUND, ImageAssets.BOOKING_BACKGROUND,
+                    ImageAssets.PAYMENT_BACKGROUND).join();
+            return null;
+        });
+
+        CompletableFuture<Void> data = timed("database connection", () -> {
+            if (Repositories.backend() == Repositories.Backend.JDBC) {
+                try (Connection conn = DBUtil.getConnection()) {
+                    conn.isValid(5);
+                }
+            }
+            return null;
+        }).thenCompose(v -> timed("schema check", () -> {
+            Repositories.initializeBackend();
+            return null;
+        })).thenCompose(v -> CompletableFuture.allOf(
+                timed("car catalog", () -> Repositories.cars().loadAllCars()),
+                timed("availability index", () -> {
+                    AvailabilityIndex.getInstance().ensureLoaded();
+                    return null;
+                })));
+
+        return CompletableFuture.allOf(images, data).whenComplete((v, error) -> {
+            if (error != null) {
+                System.err.println("[startup] warm-up failed: " + error);
+            } else {
+                log("warm-up done in " + (System.currentTimeMillis() - start)
+                        + " ms, at " + sinceJvmStart() + " ms");
+            }
+        });
+    }
+
+    private static CompletableFuture<Void> timed(String phase, Callable<?> work) {
+        return AsyncDAO.supply(() -> {
+            long start = System.nanoTime();
+            work.call();
+            log(phase + ": " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return null;
+        });
+    }
+
+    private static void log(String message) {
+        if (TIMINGS) {
+            System.out.println("[startup] " + message);
+        }
+    }
+
+    private static long sinceJvmStart() {
+        return System.currentTimeMillis() - JVM_START;
+    }
+}
@@ -0,0 +1,163 @@
+// UiTask.java
+package carrental;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * UiTask - shows progress for a background database call and delivers its
+ * result on the EDT.
+ *
+ * While the call runs, the owner window shows a wait cursor and ignores mouse
+ * clicks (so a button cannot be pressed twice). If the call takes longer than
+ * a moment, a small dialog with a progress bar appears.
+ *
+ * Only reads may be cancellable: the dialog then has a Cancel button that
+ * interrupts the worker. Writes are not, since interrupting a JDBC write
+ * does not undo it; the user always sees how a write really ended.
+ */
+public final class UiTask {
+
+    // Calls that finish faster than this never show the progress dialog
+    private static final int DIALOG_DELAY_MS = 300;
+
+    private UiTask() {
+    }
+
+    /**
+     * Waits for the future without blocking the EDT, then calls onSuccess on
+     * the EDT. Failures are reported in an error dialog. The task cannot be
+     * cancelled; use this for writes.
+     */
+    public static <T> void run(Component owner, String message,
+                               CompletableFuture<T> future, Consumer<T> onSuccess) {
+        run(owner, message, future, false, onSuccess, error -> showError(owner, error));
+    }
+
+    public static <T> void run(Component owner, String message, CompletableFuture<T> future,
+                               Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        run(owner, message, future, false, onSuccess, onError);
+    }
+
+    /**
+     * Like run, but with cancellable set the progress dialog offers Cancel.
+     * Only for reads; a cancelled task is dropped silently.
+     */
+    public static <T> void run(Component owner, String message, CompletableFuture<T> future,
+                               boolean cancellable, Consumer<T> onSuccess) {
+        run(owner, message, future, cancellable, onSuccess, error -> showError(owner, error));
+    }
+
+    public static <T> void run(Component owner, String message, CompletableFuture<T> future,
+                               boolean cancellable, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        Window window = owner instanceof Window ? (Window) owner : SwingUtilities.getWindowAncestor(owner);
+        Busy busy = new Busy(window, message, future, cancellable);
+        busy.start();
+
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            busy.stop();
+            if (future.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (!(cause instanceof CancellationException)) {
+                    onError.accept(cause);
+                }
+            } else {
+                onSuccess.accept(result);
+            }
+        }));
+    }
+
+    public static void showError(Component owner, Throwable error) {
+        error.printStackTrace();
+        JOptionPane.showMessageDialog(owner,
+                "Database error: " + error.getMessage(),
+                "DB Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Wait cursor, click-blocking glass pane and the delayed progress dialog.
+     */
+    private static final class Busy {
+        private final Window window;
+        private final String message;
+        private final CompletableFuture<?> future;
+        private final boolean cancellable;
+        private final Timer dialogTimer;
+        private Component previousGlassPane;
+        private JPanel blocker;
+        private JDialog dialog;
+
+        Busy(Window window, String message, CompletableFuture<?> future, boolean cancellable) {
+            this.window = window;
+            this.message = message;
+            this.future = future;
+            this.cancellable = cancellable;
+            this.dialogTimer = new Timer(DIALOG_DELAY_MS, e -> showDialog());
+            this.dialogTimer.setRepeats(false);
+        }
+
+        void start() {
+            if (window instanceof RootPaneContainer) {
+                RootPaneContainer container = (RootPaneContainer) window;
+                previousGlassPane = container.getGlassPane();
+                blocker = new JPanel();
+                blocker.setOpaque(false);
+                blocker.addMouseListener(new MouseAdapter() { });
+                blocker.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+                container.setGlassPane(blocker);
+                blocker.setVisible(true);
+            }
+            dialogTimer.start();
+        }
+
+        void stop() {
+            dialogTimer.stop();
+            if (dialog != null) {
+                dialog.dispose();
+                dialog = null;
+            }
+            if (blocker != null) {
+                blocker.setVisible(false);
+                ((RootPaneContainer) window).setGlassPane(previousGlassPane);
+                blocker = null;
+            }
+        }
+
+        private void showDialog() {
+            if (future.isDone()) {
+                return;
+            }
+            dialog = new JDialog(window, "Please wait", Dialog.ModalityType.MODELESS);
+            dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+
+            JPanel panel = new JPanel(new BorderLayout(10, 10));
+            panel.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+            panel.add(new JLabel(message), BorderLayout.NORTH);
+            JProgressBar bar = new JProgressBar();
+            bar.setIndeterminate(true);
+            panel.add(bar, BorderLayout.CENTER);
+
+            if (cancellable) {
+                JButton cancelBtn = new JButton("Cancel");
+                cancelBtn.addActionListener(e -> future.cancel(true));
+                JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+                buttons.add(cancelBtn);
+                panel.add(buttons, BorderLayout.SOUTH);
+            }
+
+            dialog.setContentPane(panel);
+            dialog.pack();
+            dialog.setLocationRelativeTo(window);
+            dialog.setVisible(true);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package carrental;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class UserDAO implements UserRepository {
+
+
+    // Whole calls, hashing included; HASH shows how much of that is the hasher
+    private static final DaoMetrics.Operation REGISTER = DaoMetrics.operation("UserDAO", "registerUser");
+    private static final DaoMetrics.Operation LOGIN = DaoMetrics.operation("UserDAO", "loginUser");
+    private static final DaoMetrics.Operation REHASH = DaoMetrics.operation("UserDAO", "rehash");
+    private static final DaoMetrics.Operation HASH = DaoMetrics.operation("UserDAO", "hash");
+
+    private final PasswordHasher hasher;
+    // Verified against when the username does not exist, so a miss costs as much as a hit
+    private final String noSuchUser;
+
+    public UserDAO() {
+        this(PasswordHasher.getDefault());
+    }
+
+    public UserDAO(PasswordHasher hasher) {
+        this.hasher = hasher;
+        this.noSuchUser = hasher.hash("no-such-user");
+    }
+
+    // Create table if it doesn't exist (the users table is owned by SchemaMigrator)
+    public void initializeDatabase() {
+        try {
+            SchemaMigrator.migrate();
+            System.out.println("✅ Users table ready.");
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Register new user; only a salted hash of the password is stored
+    public boolean registerUser(String username, String password) {
+        String sql = "INSERT INTO users (username, password) VALUES (?, ?)";
+        long start = System.nanoTime();
+        String hash = hash(password);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, username);
+            stmt.setString(2, hash);
+
+            int rows = stmt.executeUpdate();
+            REGISTER.success(start, rows);
+            return rows > 0;
+
+        } catch (SQLException e) {
+            REGISTER.failure(start, e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Login user: one lookup on the unique username index, then the hash is checked here.
+    // Plaintext passwords from older accounts are upgraded to a hash on their first login.
+    public boolean loginUser(String username, String password) {
+        String sql = "SELECT password FROM users WHERE username = ?";
+        String stored;
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, username);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                stored = rs.next() ? rs.getString(1) : null;
+            }
+
+        } catch (SQLException e) {
+            LOGIN.failure(start, e);
+            e.printStackTrace();
+            return false;
+        }
+
+        boolean matches = verify(password, stored == null ? noSuchUser : stored);
+        boolean ok = stored != null && matches;
+        if (ok && hasher.needsRehash(stored)) {
+            rehash(username, stored, password);
+        }
+        LOGIN.success(start, stored == null ? 0 : 1);
+        return ok;
+    }
+
+    // Replaces the stored value unless someone else changed it meanwhile
+    private void rehash(String username, String stored, String password) {
+        String sql = "UPDATE users SET password = ? WHERE username = ? AND password = ?";
+        long start = System.nanoTime();
+        String hash = hash(password);
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, hash);
+            stmt.setString(2, username);
+            stmt.setString(3, stored);
+            REHASH.success(start, stmt.executeUpdate());
+
+        } catch (SQLException e) {
+            REHASH.failure(start, e);
+            e.printStackTrace(); // the login still succeeds; the upgrade is retried next time
+        }
+    }
+
+    private String hash(String password) {
+        long start = System.nanoTime();
+        String hash = hasher.hash(password);
+        HASH.success(start, 0);
+        return hash;
+    }
+
+    private boolean verify(String password, String stored) {
+        long start = System.nanoTime();
+        boolean ok = hasher.verify(password, stored);
+        HASH.success(start, 0);
+        return ok;
+    }
+}
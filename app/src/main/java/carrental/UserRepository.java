@@ -0,0 +1,15 @@
+// UserRepository.java
+package carrental;
+
+/**
+ * Storage for customer accounts.
+ * Implemented by UserDAO (MySQL) and InMemoryUserRepository.
+ */
+public interface UserRepository {
+
+    // Stores the account with a salted hash of the password (see PasswordHasher)
+    boolean registerUser(String username, String password);
+
+    // True if the password matches the stored hash
+    boolean loginUser(String username, String password);
+}
@@ -0,0 +1,73 @@
+// AvailabilityIndexTest.java
+package carrental;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The hold/confirm/release flow of the shared AvailabilityIndex, and
+ * bookings saved while it is being rebuilt. Each test uses its own car, so
+ * the windows never meet.
+ */
+class AvailabilityIndexTest {
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    private final AvailabilityIndex index = AvailabilityIndex.getInstance();
+
+    @Test
+    void releaseAfterConfirmKeepsTheWindow() throws Exception {
+        String car = "Confirmed Hold Car";
+        Date pickup = new Date(1_800_000_000_000L);
+        Date drop = new Date(pickup.getTime() + DAY_MS);
+
+        AvailabilityIndex.Hold hold = index.hold(car, pickup, drop);
+        index.confirm(hold, 900_001);
+        // e.g. the payment page closing after the booking went through
+        index.release(hold);
+
+        assertFalse(index.isAvailable(car, pickup, drop));
+        assertThrows(AvailabilityIndex.ConflictException.class, () -> index.hold(car, pickup, drop));
+    }
+
+    @Test
+    void releaseBeforeConfirmFreesTheWindow() throws Exception {
+        String car = "Abandoned Hold Car";
+        Date pickup = new Date(1_800_000_000_000L);
+        Date drop = new Date(pickup.getTime() + DAY_MS);
+
+        AvailabilityIndex.Hold hold = index.hold(car, pickup, drop);
+        assertFalse(index.isAvailable(car, pickup, drop));
+        index.release(hold);
+
+        assertTrue(index.isAvailable(car, pickup, drop));
+    }
+
+    @Test
+    void bookingSavedDuringRebuildIsIndexed() throws Exception {
+        String car = "Rebuild Race Car";
+        Date pickup = new Date(1_800_000_000_000L);
+        Date drop = new Date(pickup.getTime() + DAY_MS);
+        InMemoryBookingRepository bookings = new InMemoryBookingRepository() {
+            @Override
+            public void forEachBooking(Consumer<Booking> handler) {
+                // Saved elsewhere after the cursor has gone past where it belongs
+                index.add(900_002, car, pickup, drop);
+                super.forEachBooking(handler);
+            }
+        };
+        try {
+            index.rebuild(bookings);
+
+            assertFalse(index.isAvailable(car, pickup, drop));
+        } finally {
+            index.rebuild(Repositories.bookings());
+        }
+    }
+}
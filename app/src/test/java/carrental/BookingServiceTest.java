@@ -0,0 +1,95 @@
+// BookingServiceTest.java
+package carrental;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BookingService on the in-memory backend (see the surefire configuration).
+ * Each test books its own car, so the shared repositories do not interfere.
+ */
+class BookingServiceTest {
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    private final BookingService service = new BookingService(5);
+
+    @Test
+    void onlyOneOfTwoConcurrentBookingsOfTheSameWindowSucceeds() throws Exception {
+        String car = addCar("Race Test Car", 1000);
+        Date pickup = new Date(1_800_000_000_000L);
+        Date drop = new Date(pickup.getTime() + 2 * DAY_MS);
+
+        int contenders = 2;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(contenders);
+        List<Future<Integer>> attempts = new ArrayList<>();
+        for (int i = 0; i < contenders; i++) {
+            Booking booking = quotedBooking("counter" + i, car, pickup, drop);
+            attempts.add(pool.submit(() -> {
+                go.await();
+                return service.book(booking, Payment.upi("test@upi"));
+            }));
+        }
+        go.countDown();
+
+        int booked = 0;
+        int refused = 0;
+        for (Future<Integer> attempt : attempts) {
+            try {
+                attempt.get(10, TimeUnit.SECONDS);
+                booked++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof AvailabilityIndex.ConflictException, e.getCause().toString());
+                refused++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(1, booked);
+        assertEquals(contenders - 1, refused);
+        assertEquals(1, Repositories.bookings().countBookings(BookingQuery.builder().car(car).build()));
+    }
+
+    @Test
+    void priceChangedDuringCheckoutIsRefused() throws Exception {
+        String car = addCar("Reprice Test Car", 1000);
+        Date pickup = new Date(1_800_000_000_000L);
+        Date drop = new Date(pickup.getTime() + 3 * DAY_MS);
+        Booking booking = quotedBooking("customer", car, pickup, drop);
+
+        // The rent goes up between the quote and the payment
+        Repositories.cars().updateCarPrice(car, 1200);
+
+        BookingService.PriceChangedException e = assertThrows(BookingService.PriceChangedException.class,
+                () -> service.book(booking, Payment.upi("test@upi")));
+        assertEquals(3000, booking.getPrice());
+        assertEquals(3600, e.getQuote().getTotal());
+        assertEquals(0, Repositories.bookings().countBookings(BookingQuery.builder().car(car).build()));
+    }
+
+    private static String addCar(String model, int dailyRent) {
+        assertTrue(Repositories.cars().addCar(model, dailyRent), model + " already exists");
+        return model;
+    }
+
+    // Priced the way BookingPage quotes it to the customer
+    private static Booking quotedBooking(String name, String car, Date pickup, Date drop) {
+        int total = PricingEngine.getInstance().quote(car, pickup, drop).getTotal();
+        return new Booking(name, name + "@example.com", "5550100", "1 Test Street",
+                car, pickup, drop, "Airport", "Downtown", total);
+    }
+}
@@ -0,0 +1,127 @@
+// BookingTableModelTest.java
+package carrental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * How BookingTableModel.refreshChanges applies deletes: in place when the
+ * row is cached, by a full refresh when it is on a page that is not.
+ */
+class BookingTableModelTest {
+
+    private static final int BOOKINGS = 50;
+    private static final int PAGE_SIZE = 10;
+    private static final long TIMEOUT_MS = 5000;
+
+    private InMemoryBookingRepository repository;
+    private BookingTableModel model;
+    private final List<TableModelEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void loadFirstPage() throws Exception {
+        repository = new InMemoryBookingRepository();
+        long day = 24L * 60 * 60 * 1000;
+        for (int i = 0; i < BOOKINGS; i++) {
+            Date pickup = new Date(1_800_000_000_000L + i * day);
+            repository.insertBooking(new Booking("customer" + i, "c" + i + "@example.com", "5550100",
+                    "1 Test Street", "Audi A8", pickup, new Date(pickup.getTime() + day),
+                    "Airport", "Downtown", 940));
+        }
+        model = onEdt(() -> new BookingTableModel(repository, PAGE_SIZE, 4));
+        onEdt(() -> {
+            model.refresh();
+            return null;
+        });
+        await(() -> model.getRowCount() == BOOKINGS);
+        // Painting row 0 caches the first page (ids 1-10) and reads the second ahead
+        await(() -> model.getBookingIdAt(0) == 1);
+        onEdt(() -> {
+            model.addTableModelListener(events::add);
+            return null;
+        });
+    }
+
+    @AfterEach
+    void closeModel() throws Exception {
+        onEdt(() -> {
+            model.close();
+            return null;
+        });
+    }
+
+    @Test
+    void deleteOnUncachedPageReloadsEverything() throws Exception {
+        assertTrue(repository.deleteBooking(45));
+        onEdt(() -> {
+            model.refreshChanges();
+            return null;
+        });
+
+        await(() -> model.getRowCount() == BOOKINGS - 1);
+        List<TableModelEvent> seen = onEdt(() -> new ArrayList<>(events));
+        assertTrue(seen.stream().anyMatch(BookingTableModelTest::isFullRefresh), "expected a full refresh");
+        assertFalse(seen.stream().anyMatch(e -> e.getType() == TableModelEvent.DELETE));
+    }
+
+    @Test
+    void deleteOnCachedPageIsAppliedInPlace() throws Exception {
+        assertTrue(repository.deleteBooking(5));
+        onEdt(() -> {
+            model.refreshChanges();
+            return null;
+        });
+
+        await(() -> model.getRowCount() == BOOKINGS - 1);
+        List<TableModelEvent> seen = onEdt(() -> new ArrayList<>(events));
+        assertFalse(seen.stream().anyMatch(BookingTableModelTest::isFullRefresh));
+        assertTrue(seen.stream().anyMatch(e -> e.getType() == TableModelEvent.DELETE
+                && e.getFirstRow() == 4 && e.getLastRow() == 4));
+    }
+
+    // What fireTableDataChanged sends
+    private static boolean isFullRefresh(TableModelEvent e) {
+        return e.getType() == TableModelEvent.UPDATE && e.getFirstRow() == 0
+                && e.getLastRow() == Integer.MAX_VALUE;
+    }
+
+    // The model is only touched on the EDT
+    private static <T> T onEdt(Callable<T> work) throws Exception {
+        List<T> result = new ArrayList<>(1);
+        List<Exception> error = new ArrayList<>(1);
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result.add(work.call());
+            } catch (Exception e) {
+                error.add(e);
+            }
+        });
+        if (!error.isEmpty()) {
+            throw error.get(0);
+        }
+        return result.get(0);
+    }
+
+    private static void await(BooleanSupplier condition) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!onEdt(condition::getAsBoolean)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("timed out waiting for the table model");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
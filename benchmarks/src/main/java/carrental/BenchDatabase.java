@@ -0,0 +1,79 @@
+// BenchDatabase.java
+package carrental;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+
+/**
+ * Points DBUtil at an embedded H2 database (MySQL mode) and fills it with
+ * benchmark data. Must run before anything touches DBUtil, which reads its
+ * settings once. Pass -Ddb.url=... to benchmark a real server instead.
+ */
+final class BenchDatabase {
+
+    static final String MARKER = "bench";
+
+    private static boolean started = false;
+
+    private BenchDatabase() {
+    }
+
+    static synchronized void start() throws SQLException {
+        if (started) {
+            return;
+        }
+        if (System.getProperty("db.url") == null) {
+            // IGNORECASE matches MySQL's default case-insensitive collation (booking search relies on it)
+            System.setProperty("db.url", "jdbc:h2:mem:carrental;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1");
+            System.setProperty("db.user", "sa");
+            System.setProperty("db.password", "");
+        }
+        SchemaMigrator.migrate();
+        started = true;
+    }
+
+    /**
+     * Replaces the benchmark's bookings with the given number of rows.
+     */
+    static void seedBookings(int rows) throws SQLException {
+        deleteBookings();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(BookingDAO.INSERT_SQL)) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < rows; i++) {
+                BookingDAO.bindInsert(ps, sampleBooking(i));
+                ps.addBatch();
+                if (i % 1000 == 999) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+            conn.commit();
+        }
+    }
+
+    static void deleteBookings() throws SQLException {
+        try (Connection conn = DBUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM bookings WHERE name = '" + MARKER + "'");
+        }
+    }
+
+    static void deletePayments() throws SQLException {
+        try (Connection conn = DBUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM myupi WHERE upi_id = '" + MARKER + "@upi'");
+        }
+    }
+
+    static Booking sampleBooking(int i) {
+        long day = 24L * 60 * 60 * 1000;
+        Date pickup = new Date(1_700_000_000_000L + i * day);
+        Date drop = new Date(pickup.getTime() + 3 * day);
+        return new Booking(MARKER, "bench@example.com", "5550100", "1 Bench Street",
+                "Audi A8", pickup, drop, "Airport", "Downtown", 2820);
+    }
+}
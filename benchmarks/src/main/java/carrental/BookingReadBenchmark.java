@@ -0,0 +1,61 @@
+// BookingReadBenchmark.java
+package carrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the whole bookings table: the admin tab's full load (rows mapped to
+ * table Vectors) against streaming the same rows one Booking at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingReadBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private BookingDAO bookingDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchDatabase.start();
+        BenchDatabase.seedBookings(rows);
+        bookingDAO = new BookingDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchDatabase.deleteBookings();
+    }
+
+    @Benchmark
+    public Vector<Vector<Object>> loadAllBookings() {
+        return bookingDAO.loadAllBookings();
+    }
+
+    @Benchmark
+    public void forEachBooking(Blackhole bh) throws SQLException {
+        bookingDAO.forEachBooking(bh::consume);
+    }
+}
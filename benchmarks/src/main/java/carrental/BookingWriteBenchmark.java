@@ -0,0 +1,109 @@
+// BookingWriteBenchmark.java
+package carrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The booking insert path: one statement and commit per booking, a burst
+ * of bookings handed to the group-commit BookingWriter (kept here, in the
+ * benchmark module, for comparison only), and the checkout (booking plus
+ * payment in one transaction). Scores are per booking. The concurrent
+ * variants have CONCURRENT_SUBMITTERS threads each saving one booking at a
+ * time and waiting for its id, which is where group commit pays off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingWriteBenchmark {
+
+    private static final int BURST = 50;
+    private static final int CONCURRENT_SUBMITTERS = 16;
+
+    private BookingDAO bookingDAO;
+    private BookingWriter writer;
+    // Next free checkout window; checkouts refuse overlapping bookings
+    private int nextWindow = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchDatabase.start();
+        bookingDAO = new BookingDAO();
+        writer = new BookingWriter(BURST, 2);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRows() throws SQLException {
+        BenchDatabase.deletePayments();
+        BenchDatabase.deleteBookings();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        writer.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int insertPerRow() throws SQLException {
+        int last = 0;
+        for (int i = 0; i < BURST; i++) {
+            last = bookingDAO.insertBooking(BenchDatabase.sampleBooking(i));
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int checkout() throws Exception {
+        int last = 0;
+        for (int i = 0; i < BURST; i++) {
+            // Sample windows are three days long, so every third one is free
+            last = CheckoutService.getInstance().checkout(BenchDatabase.sampleBooking(3 * nextWindow++),
+                    Payment.upi("bench@upi"));
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int insertBatched() {
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[BURST];
+        for (int i = 0; i < BURST; i++) {
+            pending[i] = writer.submit(BenchDatabase.sampleBooking(i));
+        }
+        CompletableFuture.allOf(pending).join();
+        return pending.length;
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_SUBMITTERS)
+    public int insertPerRowConcurrent() throws SQLException {
+        return bookingDAO.insertBooking(BenchDatabase.sampleBooking(0));
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_SUBMITTERS)
+    public int insertBatchedConcurrent() {
+        return writer.submit(BenchDatabase.sampleBooking(0)).join();
+    }
+}
@@ -0,0 +1,206 @@
+// BookingWriter.java
+package carrental;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingWriter - queues booking inserts and writes them as JDBC batches.
+ *
+ * A single writer thread collects submissions until either the batch is full
+ * (maxBatchSize) or the oldest queued booking has waited maxDelayMs, then
+ * inserts the whole batch in one transaction. Each caller gets a future that
+ * completes with its booking id.
+ *
+ * Bookings that arrive while a batch is being written form the next batch, so
+ * a delay of 0 still groups commits under load without delaying a lone booking.
+ *
+ * Benchmark only: BookingWriteBenchmark compares this group commit with
+ * per-row inserts and checkouts. The app never uses it, because bookings
+ * written here are not checked for availability or price; checkouts go
+ * through BookingService and CSV imports batch their own chunks.
+ */
+public class BookingWriter {
+
+    // One call per batch attempt; rows is the number of bookings committed
+    private static final DaoMetrics.Operation FLUSH = DaoMetrics.operation("BookingWriter", "flush");
+
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingBooking> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public BookingWriter(int maxBatchSize, long maxDelayMs) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.writerThread = new Thread(this::runLoop, "booking-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues a booking for insertion. After shutdown() the future fails at once.
+     * @return a future holding the generated booking id
+     */
+    public CompletableFuture<Integer> submit(Booking booking) {
+        PendingBooking pending = new PendingBooking(booking);
+        if (!running) {
+            return rejected(pending);
+        }
+        queue.add(pending);
+        // Shut down in between: the writer may already have left, so take it back
+        if (!running && queue.remove(pending)) {
+            return rejected(pending);
+        }
+        return pending.result;
+    }
+
+    private static CompletableFuture<Integer> rejected(PendingBooking pending) {
+        pending.result.completeExceptionally(new SQLException("Booking writer has been shut down."));
+        return pending.result;
+    }
+
+    /**
+     * Stops accepting bookings; anything already queued is still written.
+     */
+    public void shutdown() {
+        running = false;
+        writerThread.interrupt();
+    }
+
+    private void runLoop() {
+        List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingBooking first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    break;
+                }
+                batch.add(first);
+                // Keep collecting until the batch is full or the time window closes
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingBooking next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown requested; drain whatever is left on the next pass
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    flush(batch);
+                } catch (RuntimeException e) {
+                    // Fail whatever has no answer yet; the writer must keep going
+                    for (PendingBooking pending : batch) {
+                        pending.result.completeExceptionally(e);
+                    }
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    // Writes the batch in one transaction; on failure retries row by row so
+    // one bad booking does not fail the others queued with it
+    private void flush(List<PendingBooking> batch) {
+        long start = System.nanoTime();
+        int[] ids;
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    BookingDAO.INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (PendingBooking pending : batch) {
+                    BookingDAO.bindInsert(ps, pending.booking);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                ids = new int[batch.size()];
+                int n = 0;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next() && n < ids.length) {
+                        ids[n++] = keys.getInt(1);
+                    }
+                }
+                if (n != ids.length) {
+                    throw new SQLException("Expected " + ids.length + " generated keys but got " + n);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                // e.g. a booking without dates fails in bindInsert
+                FLUSH.failure(start, e);
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    // Already counted; the row-by-row retry below uses fresh connections
+                    e.addSuppressed(rollbackError);
+                }
+                if (batch.size() == 1) {
+                    batch.get(0).result.completeExceptionally(e);
+                    return;
+                }
+                ids = null;
+            }
+        } catch (SQLException e) {
+            FLUSH.failure(start, e);
+            for (PendingBooking pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+            return;
+        }
+        if (ids == null) {
+            flushOneByOne(batch);
+            return;
+        }
+        FLUSH.success(start, ids.length);
+        // Every caller gets its id before any event goes out
+        for (int i = 0; i < ids.length; i++) {
+            batch.get(i).result.complete(ids[i]);
+        }
+        EventBus bus = EventBus.getInstance();
+        for (int i = 0; i < ids.length; i++) {
+            bus.publish(BookingEvent.created(batch.get(i).booking.withId(ids[i])));
+        }
+    }
+
+    private void flushOneByOne(List<PendingBooking> batch) {
+        BookingDAO dao = new BookingDAO();
+        for (PendingBooking pending : batch) {
+            try {
+                pending.result.complete(dao.insertBooking(pending.booking));
+            } catch (SQLException | RuntimeException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class PendingBooking {
+        final Booking booking;
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        PendingBooking(Booking booking) {
+            this.booking = booking;
+        }
+    }
+}
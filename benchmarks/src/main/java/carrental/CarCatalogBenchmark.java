@@ -0,0 +1,50 @@
+// CarCatalogBenchmark.java
+package carrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CarDAO.loadAllCars served from the CarCatalog snapshot, and the same call
+ * when the snapshot has just been invalidated and must be re-read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarCatalogBenchmark {
+
+    private CarDAO carDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchDatabase.start();
+        carDAO = new CarDAO();
+    }
+
+    @Benchmark
+    public Map<String, Integer> loadAllCarsCached() {
+        return carDAO.loadAllCars();
+    }
+
+    @Benchmark
+    public Map<String, Integer> loadAllCarsFromDatabase() {
+        CarCatalog.getInstance().invalidate();
+        return carDAO.loadAllCars();
+    }
+}
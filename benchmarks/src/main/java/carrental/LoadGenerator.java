@@ -0,0 +1,284 @@
+// LoadGenerator.java
+package carrental;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless load test: virtual users going through the same steps as the
+ * Swing booking flow, against the configured repositories.
+ *
+ * Each user signs up once and then loops until the run ends: log in,
+ * browse the fleet (catalog plus a price quote), book and pay through
+ * BookingService, and every load.adminEvery-th loop the admin reads (count
+ * plus the newest page). Users pause for a random think time around
+ * load.thinkMs between steps, and start evenly spread over the ramp-up.
+ * A failed step is counted and ends that loop; the user pauses and starts
+ * the next one (retrying the sign-up if that was what failed).
+ *
+ * All users book among the first load.cars cars of the fleet (0 for all of
+ * them), so they contend for the same rows the way a busy counter does.
+ * Bookings refused because the window is taken are counted as conflicts,
+ * not errors; the report also shows how often BookingService had to retry.
+ *
+ * Users run on AsyncDAO's executor, i.e. virtual threads on Java 21+.
+ * The pool size (db.pool.maxSize) usually decides how many of them reach
+ * the database at once.
+ *
+ * Settings: load.users (50), load.durationSeconds (60),
+ * load.rampUpSeconds (10), load.thinkMs (500), load.adminEvery (10),
+ * load.cars (3), load.reportSeconds (10). Runs against embedded H2 unless -Ddb.url=...
+ * is given. Rows written are removed at the end.
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar carrental.LoadGenerator
+ */
+public class LoadGenerator {
+
+    private static final String USER_PREFIX = "load-";
+    private static final String PASSWORD = "load-test-password";
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    // Rows the admin table fetches per page
+    private static final int ADMIN_PAGE_SIZE = 200;
+    // Pickup dates are spread over this many days
+    private static final int BOOKING_DAYS = 3650;
+
+    enum Step {
+        SIGNUP, LOGIN, BROWSE, BOOK, ADMIN;
+
+        final DaoMetrics.Operation metrics = DaoMetrics.operation("LoadGenerator", name().toLowerCase());
+    }
+
+    private final int users;
+    private final long durationNanos;
+    private final long rampUpNanos;
+    private final long thinkMs;
+    private final int adminEvery;
+    private final int cars;
+    private final LongAdder conflicts = new LongAdder();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private volatile long deadline;
+
+    public LoadGenerator(int users, long durationSeconds, long rampUpSeconds, long thinkMs, int adminEvery,
+                         int cars) {
+        if (users < 1 || durationSeconds < 1) {
+            throw new IllegalArgumentException("Need at least one user and one second");
+        }
+        this.users = users;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.rampUpNanos = TimeUnit.SECONDS.toNanos(Math.min(rampUpSeconds, durationSeconds));
+        this.thinkMs = thinkMs;
+        this.adminEvery = Math.max(1, adminEvery);
+        this.cars = Math.max(0, cars);
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchDatabase.start();
+        Repositories.initializeBackend();
+        LoadGenerator load = new LoadGenerator(
+                Integer.getInteger("load.users", 50),
+                Long.getLong("load.durationSeconds", 60L),
+                Long.getLong("load.rampUpSeconds", 10L),
+                Long.getLong("load.thinkMs", 500L),
+                Integer.getInteger("load.adminEvery", 10),
+                Integer.getInteger("load.cars", 3));
+        try {
+            load.run(Long.getLong("load.reportSeconds", 10L));
+        } finally {
+            load.cleanUp();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Runs the users to the end of the duration, printing progress every
+     * reportSeconds and the per-step table at the end.
+     */
+    public void run(long reportSeconds) throws InterruptedException {
+        for (Step step : Step.values()) {
+            step.metrics.reset();
+        }
+        conflicts.reset();
+        long retriesBefore = BookingService.getInstance().getRetries();
+        System.out.printf("%d users for %d s (ramp-up %d s, think %d ms) on %s, booking %s%n", users,
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(rampUpNanos),
+                thinkMs, Repositories.backend(), cars == 0 ? "every car" : cars + " car(s)");
+        long start = System.nanoTime();
+        deadline = start + durationNanos;
+        List<Future<?>> running = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            long startDelay = rampUpNanos * i / users;
+            int user = i;
+            running.add(AsyncDAO.executor().submit(() -> runUser(user, start + startDelay)));
+        }
+
+        long reportNanos = TimeUnit.SECONDS.toNanos(Math.max(1, reportSeconds));
+        long nextReport = start + reportNanos;
+        while (System.nanoTime() < deadline) {
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, Math.min(nextReport, deadline) - System.nanoTime()));
+            if (System.nanoTime() >= nextReport) {
+                System.out.printf("%4d s  %s%n", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), progress());
+                nextReport += reportNanos;
+            }
+        }
+        for (Future<?> user : running) {
+            try {
+                user.get(); // users finish the step they are in
+            } catch (Exception e) {
+                System.err.println("Virtual user failed: " + e);
+            }
+        }
+        report(System.nanoTime() - start, BookingService.getInstance().getRetries() - retriesBefore);
+    }
+
+    private void runUser(int user, long startAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String username = USER_PREFIX + runId + "-" + user;
+        boolean signedUp = false;
+        try {
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, startAt - System.nanoTime()));
+            for (int loop = 1; System.nanoTime() < deadline; loop++) {
+                try {
+                    if (!signedUp) {
+                        time(Step.SIGNUP, () -> check(Repositories.users().registerUser(username, PASSWORD),
+                                "sign-up rejected"));
+                        signedUp = true;
+                    }
+                    runPass(username, loop, random);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // Already counted as an error by time(); pause, then start the next loop
+                    think(random);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // One pass through the booking flow; the first failed step ends the pass
+    private void runPass(String username, int loop, ThreadLocalRandom random) throws Exception {
+        think(random);
+        time(Step.LOGIN, () -> check(Repositories.users().loginUser(username, PASSWORD), "login rejected"));
+        think(random);
+        Booking[] booking = new Booking[1];
+        time(Step.BROWSE, () -> booking[0] = pickBooking(random));
+        think(random);
+        time(Step.BOOK, () -> {
+            try {
+                BookingService.getInstance().book(booking[0], Payment.upi(BenchDatabase.MARKER + "@upi"));
+            } catch (AvailabilityIndex.ConflictException e) {
+                conflicts.increment(); // someone else has the car then; the service did its job
+            }
+        });
+        if (loop % adminEvery == 0) {
+            time(Step.ADMIN, () -> {
+                BookingRepository bookings = Repositories.bookings();
+                bookings.countBookings(BookingQuery.ALL);
+                bookings.findBookings(BookingQuery.builder().sortBy(BookingQuery.Sort.ID, true).build(),
+                        0, ADMIN_PAGE_SIZE);
+            });
+        }
+    }
+
+    // Loads the fleet and prices one of the first load.cars cars over a random window, like the booking form
+    private Booking pickBooking(ThreadLocalRandom random) {
+        Map<String, Integer> fleet = Repositories.cars().loadAllCars();
+        if (fleet.isEmpty()) {
+            throw new IllegalStateException("No cars to book");
+        }
+        List<String> models = new ArrayList<>(fleet.keySet());
+        int choices = cars == 0 ? models.size() : Math.min(cars, models.size());
+        String car = models.get(random.nextInt(choices));
+        Date pickup = new Date(1_700_000_000_000L + random.nextInt(BOOKING_DAYS) * DAY_MS);
+        Date drop = new Date(pickup.getTime() + (1 + random.nextInt(7)) * DAY_MS);
+        PricingEngine.Quote quote = PricingEngine.getInstance().quote(car, pickup, drop);
+        return new Booking(BenchDatabase.MARKER, "load@example.com", "5550100", "1 Load Street",
+                car, pickup, drop, "Airport", "Downtown", quote == null ? 0 : quote.getTotal());
+    }
+
+    private void think(ThreadLocalRandom random) throws InterruptedException {
+        if (thinkMs > 0) {
+            // Uniform between half and one and a half times the mean
+            Thread.sleep(thinkMs / 2 + random.nextLong(thinkMs + 1));
+        }
+    }
+
+    private interface StepBody {
+        void run() throws Exception;
+    }
+
+    private static void time(Step step, StepBody body) throws Exception {
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } catch (Exception e) {
+            step.metrics.failure(start, e);
+            throw e;
+        }
+        step.metrics.success(start, 1);
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private static String progress() {
+        StringBuilder sb = new StringBuilder();
+        for (Step step : Step.values()) {
+            sb.append(String.format("%s=%d ", step.name().toLowerCase(), step.metrics.getCalls()));
+        }
+        return sb.toString().trim();
+    }
+
+    private void report(long elapsedNanos, long retries) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nSteps over %.1f s:%n", seconds);
+        System.out.printf("%-8s %9s %7s %9s %9s %9s %9s %9s%n",
+                "step", "calls", "errors", "per sec", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Step step : Step.values()) {
+            DaoMetrics.Operation m = step.metrics;
+            System.out.printf("%-8s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", step.name().toLowerCase(),
+                    m.getCalls(), m.getErrors(), m.getCalls() / seconds, m.getP50Millis(),
+                    m.getP95Millis(), m.getP99Millis(), m.getMaxMillis());
+            if (m.getLastError() != null) {
+                System.out.println("         last error: " + m.getLastError());
+            }
+        }
+        System.out.printf("%nBookings refused as conflicts: %d, optimistic retries: %d%n", conflicts.sum(), retries);
+        if (Repositories.backend() == Repositories.Backend.JDBC) {
+            System.out.printf("%nDAO calls:%n");
+            for (DaoMetrics.Operation op : DaoMetrics.operations()) {
+                if (op.getCalls() > 0 && !op.getDao().equals("LoadGenerator")) {
+                    System.out.println(op);
+                }
+            }
+            System.out.println(DBUtil.getPoolStats());
+        }
+    }
+
+    // Removes the users, bookings and payments this run wrote
+    private void cleanUp() throws SQLException {
+        if (Repositories.backend() != Repositories.Backend.JDBC) {
+            return;
+        }
+        BenchDatabase.deletePayments();
+        BenchDatabase.deleteBookings();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM users WHERE username LIKE ?")) {
+            ps.setString(1, USER_PREFIX + runId + "-%");
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+// LoginBenchmark.java
+package carrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throughput at different PBKDF2 costs, against resuming a cached
+ * session (no database, no hash).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoginBenchmark {
+
+    private static final String USERNAME = BenchDatabase.MARKER + "-login";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10000", "120000", "310000"})
+    public int iterations;
+
+    private UserDAO userDAO;
+    private SessionCache sessions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchDatabase.start();
+        tearDown();
+        userDAO = new UserDAO(new PasswordHasher(iterations));
+        userDAO.registerUser(USERNAME, PASSWORD);
+        sessions = SessionCache.getInstance();
+        sessions.open(USERNAME, PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM users WHERE username = ?")) {
+            ps.setString(1, USERNAME);
+            ps.executeUpdate();
+        }
+    }
+
+    @Benchmark
+    public boolean login() {
+        return userDAO.loginUser(USERNAME, PASSWORD);
+    }
+
+    @Benchmark
+    public SessionCache.Session resumeSession() {
+        return sessions.resume(USERNAME, PASSWORD);
+    }
+}
@@ -0,0 +1,60 @@
+// PricingBenchmark.java
+package carrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PricingEngine: a single quote (what the booking form asks for on every
+ * date or car change) and a whole-fleet quote for one window.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"8", "1000"})
+    public int fleetSize;
+
+    private PricingEngine engine;
+    private Date pickup;
+    private Date drop;
+
+    @Setup
+    public void setUp() {
+        Map<String, Integer> fleet = new LinkedHashMap<>();
+        for (int i = 0; i < fleetSize; i++) {
+            fleet.put("Car " + i, 500 + i % 700);
+        }
+        engine = new PricingEngine(() -> fleet);
+        pickup = new Date(1_700_000_000_000L);
+        drop = new Date(pickup.getTime() + 5 * PricingEngine.DAY_MS + 90 * 60 * 1000);
+    }
+
+    @Benchmark
+    public PricingEngine.Quote quote() {
+        return engine.quote("Car 0", pickup, drop);
+    }
+
+    @Benchmark
+    public Map<String, PricingEngine.Quote> quoteFleet() {
+        return engine.quoteFleet(pickup, drop);
+    }
+}